@@ -0,0 +1,27 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines foreign promise or thenable objects which can be adopted without intermediate callbacks and promises.
+ * <p/>
+ * When a value implementing this interface is returned from a callback or passed to a resolve function, it is adopted
+ * by {@link #subscribe(Adopter)} instead of by its {@code then} method.
+ */
+public interface Adoptable
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Subscribes the resolution of this object. The implementation should invoke exactly one method of the specified
+     * adopter, at most once, either synchronously or after this object gets resolved. The resolved value is passed
+     * as-is, and is not adopted again.
+     *
+     * @param adopter The adopter receiving the resolution of this object
+     */
+    void subscribe(final Adopter adopter);
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
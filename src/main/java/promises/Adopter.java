@@ -0,0 +1,35 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Receives the resolution of an {@link Adoptable} value. Exactly one of the methods should be invoked, at most once.
+ */
+public interface Adopter
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Indicates that the adopted value never gets resolved.
+     */
+    void setAlwaysPending();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Indicates that the adopted value is fulfilled.
+     *
+     * @param value The fulfilled value
+     */
+    void setFulfilled(final Object value);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Indicates that the adopted value is rejected.
+     *
+     * @param reason The rejected reason
+     * @param exception The rejected exception
+     */
+    void setRejected(final Object reason, final Throwable exception);
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
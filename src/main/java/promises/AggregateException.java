@@ -0,0 +1,41 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+import java.util.List;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines the exception of promises returned by the {@code any} combinators, which are rejected because all the input
+ * promises are rejected.
+ */
+public final class AggregateException extends BaseRejectionException
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private final List<Throwable> exceptions;
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The constructor of this exception. The stack trace is not filled in if stackless rejections are enabled by
+     * {@link Promises#setStacklessRejections}.
+     *
+     * @param exceptions The exceptions of the rejected input promises, in the order of the input promises
+     */
+    public AggregateException(final List<Throwable> exceptions)
+    {
+        super("All promises were rejected");
+        this.exceptions = exceptions;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the exceptions of the rejected input promises, in the order of the input promises.
+     *
+     * @return The exceptions of the rejected input promises
+     */
+    public final List<Throwable> exceptions()
+    {
+        return exceptions;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,47 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+//---------------------------------------------------------------------------------------------------------------------
+abstract class BaseRejectionException extends Exception
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static volatile boolean stackless = Boolean.getBoolean("promises.stacklessRejections");
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean constructed;
+    //-----------------------------------------------------------------------------------------------------------------
+    BaseRejectionException(final String message)
+    {
+        super(message);
+        constructed();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    BaseRejectionException(final String message, final Throwable cause)
+    {
+        super(message, cause);
+        constructed();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void constructed()
+    {
+        if (!stackless)
+            super.fillInStackTrace();
+
+        constructed = true;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static void setStackless(final boolean stackless)
+    {
+        BaseRejectionException.stackless = stackless;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final synchronized Throwable fillInStackTrace()
+    {
+        return constructed ? super.fillInStackTrace() : this;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,25 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+import java.util.concurrent.Executor;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines executors accepting promise callbacks in batches. When a promise with many pending callbacks on such an
+ * executor gets resolved, the callbacks are submitted together as a few commands by {@link #execute(Runnable)},
+ * instead of one command per callback. Callbacks in the same batch run sequentially in their registration order.
+ */
+public interface BatchExecutor extends Executor
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the maximum number of callbacks submitted together as one command.
+     *
+     * @return The maximum batch size; 1 to submit each callback separately
+     */
+    int maxBatchSize();
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
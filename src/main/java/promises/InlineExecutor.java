@@ -0,0 +1,33 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+import java.util.concurrent.Executor;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines executors able to tell whether the current thread is one of their own threads, such as single-threaded
+ * event loops. Promise callbacks specified with such an executor run in place, without being handed off by
+ * {@link #execute(Runnable)}, when the promise is resolved by a thread of the same executor.
+ */
+public interface InlineExecutor extends Executor
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns whether the current thread is running commands of this executor.
+     *
+     * @return {@code true} if callbacks for this executor may run in the current thread directly
+     */
+    boolean inExecutorThread();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the maximum nesting depth of callbacks running in place, beyond which callbacks are handed off by
+     * {@link #execute(Runnable)} again to bound the stack depth.
+     *
+     * @return The maximum nesting depth; 0 to always hand off callbacks
+     */
+    int maxInlineDepth();
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,30 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines the exception of promises rejected by the {@code cancel} methods, and of the promises they are chained from
+ * once all of their consumers are cancelled. A new stackless instance is created for each cancellation.
+ */
+public final class PromiseCancelledException extends Exception
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The constructor of this exception. The stack trace is never filled in.
+     */
+    public PromiseCancelledException()
+    {
+        super("The promise is cancelled");
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final synchronized Throwable fillInStackTrace()
+    {
+        return this;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -9,7 +9,7 @@ import promises.impl.ImplUtil;
 /**
  * Defines exceptions indicating rejected promises.
  */
-public final class PromiseRejectedException extends Exception
+public final class PromiseRejectedException extends BaseRejectionException
 {
     //-----------------------------------------------------------------------------------------------------------------
     private final Object promise;
@@ -17,7 +17,8 @@ public final class PromiseRejectedException extends Exception
     private final Object reason;
     //-----------------------------------------------------------------------------------------------------------------
     /**
-     * The constructor of this exception.
+     * The constructor of this exception. The stack trace is not filled in if stackless rejections are enabled by
+     * {@link Promises#setStacklessRejections}.
      *
      * @param promise The rejected promise object
      * @param reason The rejected reason of the {@code promise} argument
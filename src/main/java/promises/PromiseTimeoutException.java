@@ -0,0 +1,30 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines the exception of promises returned by the {@code withTimeout} methods, which are rejected because their
+ * source promises are not resolved in time. A new stackless instance is created for each such rejection.
+ */
+public final class PromiseTimeoutException extends Exception
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The constructor of this exception. The stack trace is never filled in.
+     */
+    public PromiseTimeoutException()
+    {
+        super("The promise is not resolved in time");
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final synchronized Throwable fillInStackTrace()
+    {
+        return this;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
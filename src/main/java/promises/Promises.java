@@ -5,7 +5,10 @@
 //---------------------------------------------------------------------------------------------------------------------
 package promises;
 import promises.impl.LoggerManager;
+import promises.impl.MultiCallback;
+import promises.impl.MultiValue;
 import promises.impl.UntypedPromiseImpl;
+import java.util.Map;
 import java.util.concurrent.Executor;
 //---------------------------------------------------------------------------------------------------------------------
 /**
@@ -24,6 +27,24 @@ public class Promises
         LoggerManager.singleton().registerInternalExceptionHandler(handler);
     }
     //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Enables or disables stackless rejections for all promise styles.
+     * <p/>
+     * When enabled, {@link PromiseRejectedException} thrown by {@code await} and {@link TypeErrorException} created
+     * for internal rejections do not fill in their stack traces, which avoids the stack capturing cost if rejections
+     * are used as routine control flow.
+     * <p/>
+     * This setting is process-global: it affects every promise created by this library in the JVM, including those of
+     * other libraries sharing it. Its initial value is read from the {@code promises.stacklessRejections} system
+     * property, which defaults to {@code false}.
+     *
+     * @param stackless {@code true} to enable stackless rejections, or {@code false} to disable them
+     */
+    public static void setStacklessRejections(final boolean stackless)
+    {
+        BaseRejectionException.setStackless(stackless);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     /**
      * Returns the specified value itself.
      *
@@ -121,7 +142,7 @@ public class Promises
      */
     public static Promise pf(final Object v1, final Object v2)
     {
-        return pf(M2.of(v1, v2));
+        return pf(MultiValue.of(v1, v2));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -134,7 +155,7 @@ public class Promises
      */
     public static Promise pf(final Object v1, final Object v2, final Object v3)
     {
-        return pf(M3.of(v1, v2, v3));
+        return pf(MultiValue.of(v1, v2, v3));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -148,7 +169,7 @@ public class Promises
      */
     public static Promise pf(final Object v1, final Object v2, final Object v3, final Object v4)
     {
-        return pf(M4.of(v1, v2, v3, v4));
+        return pf(MultiValue.of(v1, v2, v3, v4));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -163,7 +184,7 @@ public class Promises
      */
     public static Promise pf(final Object v1, final Object v2, final Object v3, final Object v4, final Object v5)
     {
-        return pf(M5.of(v1, v2, v3, v4, v5));
+        return pf(MultiValue.of(v1, v2, v3, v4, v5));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -352,14 +373,7 @@ public class Promises
      */
     public static <VI1, VI2> OnFulfilled<M2<VI1, VI2>> wf(final FR2<? super VI1, ? super VI2, ?> onFulfilled)
     {
-        return new OnFulfilled<M2<VI1, VI2>>() {
-            @Override public Object call(final M2<VI1, VI2> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2);
-                else
-                    return onFulfilled.call(null, null);
-            }
-        };
+        return MultiCallback.untyped(2, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -371,14 +385,7 @@ public class Promises
     public static <VI1, VI2, VI3> OnFulfilled<M3<VI1, VI2, VI3>>
     wf(final FR3<? super VI1, ? super VI2, ? super VI3, ?> onFulfilled)
     {
-        return new OnFulfilled<M3<VI1, VI2, VI3>>() {
-            @Override public Object call(final M3<VI1, VI2, VI3> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3);
-                else
-                    return onFulfilled.call(null, null, null);
-            }
-        };
+        return MultiCallback.untyped(3, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -390,14 +397,7 @@ public class Promises
     public static <VI1, VI2, VI3, VI4> OnFulfilled<M4<VI1, VI2, VI3, VI4>>
     wf(final FR4<? super VI1, ? super VI2, ? super VI3, ? super VI4, ?> onFulfilled)
     {
-        return new OnFulfilled<M4<VI1, VI2, VI3, VI4>>() {
-            @Override public Object call(final M4<VI1, VI2, VI3, VI4> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3, v.v4);
-                else
-                    return onFulfilled.call(null, null, null, null);
-            }
-        };
+        return MultiCallback.untyped(4, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -409,14 +409,7 @@ public class Promises
     public static <VI1, VI2, VI3, VI4, VI5> OnFulfilled<M5<VI1, VI2, VI3, VI4, VI5>>
     wf(final FR5<? super VI1, ? super VI2, ? super VI3, ? super VI4, ? super VI5, ?> onFulfilled)
     {
-        return new OnFulfilled<M5<VI1, VI2, VI3, VI4, VI5>>() {
-            @Override public Object call(final M5<VI1, VI2, VI3, VI4, VI5> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3, v.v4, v.v5);
-                else
-                    return onFulfilled.call(null, null, null, null, null);
-            }
-        };
+        return MultiCallback.untyped(5, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -515,5 +508,315 @@ public class Promises
         );
     }
     //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the list of the fulfilled values of all specified promises, in
+     * their iteration order, once all of them are fulfilled. The new promise is rejected as soon as any of the
+     * specified promises is rejected. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static Promise all(final Iterable<? extends Promise> promises)
+    {
+        return UntypedPromiseImpl.factory.all(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the list of the fulfilled values of all specified promises, in
+     * their argument order, once all of them are fulfilled. The new promise is rejected as soon as any of the
+     * specified promises is rejected.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static Promise all(final Promise... promises)
+    {
+        return UntypedPromiseImpl.factory.all(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the {@link Settlements} of all specified promises, indexed by their
+     * iteration order, once all of them are either fulfilled or rejected. Non-promise elements are treated as
+     * fulfilled values.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static Promise allSettled(final Iterable<? extends Promise> promises)
+    {
+        return UntypedPromiseImpl.factory.allSettled(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the {@link Settlements} of all specified promises, indexed by their
+     * argument order, once all of them are either fulfilled or rejected.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static Promise allSettled(final Promise... promises)
+    {
+        return UntypedPromiseImpl.factory.allSettled(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the first settled one of the specified promises. The
+     * new promise stays pending if no promise is specified. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static Promise race(final Iterable<? extends Promise> promises)
+    {
+        return UntypedPromiseImpl.factory.race(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the first settled one of the specified promises. The
+     * new promise stays pending if no promise is specified.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static Promise race(final Promise... promises)
+    {
+        return UntypedPromiseImpl.factory.race(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the value of the first fulfilled one of the specified promises. If
+     * all of them are rejected, the new promise is rejected with the list of the rejection reasons and an
+     * {@link AggregateException} of the rejection exceptions, in their iteration order. Non-promise elements are
+     * treated as fulfilled values.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static Promise any(final Iterable<? extends Promise> promises)
+    {
+        return UntypedPromiseImpl.factory.any(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the value of the first fulfilled one of the specified promises. If
+     * all of them are rejected, the new promise is rejected with the list of the rejection reasons and an
+     * {@link AggregateException} of the rejection exceptions, in their argument order.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static Promise any(final Promise... promises)
+    {
+        return UntypedPromiseImpl.factory.any(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Maps the specified inputs to promises, thenables or values by the {@code mapper} callback, with at most
+     * {@code parallelism} mapped promises pending at any time. The inputs are iterated lazily: the next input is taken
+     * only when a pending mapped promise is fulfilled.
+     * <p/>
+     * The returned promise would be fulfilled with the list of the fulfilled values of the mapped promises, in the
+     * iteration order of the inputs, or be rejected as soon as any mapped promise is rejected or the {@code mapper}
+     * callback throws. No further input is taken after the rejection.
+     *
+     * @param inputs The inputs to be mapped
+     * @param parallelism The maximum number of pending mapped promises
+     * @param exec The executor which the {@code mapper} callback would be executed on
+     * @param mapper The callback function mapping each input to a promise, thenable or value
+     * @return The promise representing the mapping state
+     */
+    public static <T> Promise mapAsync(
+        final Iterable<? extends T> inputs,
+        final int parallelism,
+        final Executor exec,
+        final FR1<? super T, ?> mapper
+    ) {
+        return UntypedPromiseImpl.factory.mapAsync(inputs, parallelism, exec, mapper);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously loops on a state: while the {@code condition} callback returns {@code true} for the current state,
+     * the {@code body} callback maps the state to a promise, thenable or value, whose fulfilled value becomes the next
+     * state. Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with the final state, or be rejected as soon as an iteration is
+     * rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param initial The initial state
+     * @param condition The callback function deciding whether to run the next iteration
+     * @param body The callback function running an iteration
+     * @return The promise representing the loop execution state
+     */
+    public static Promise loop(
+        final Executor exec,
+        final Object initial,
+        final FR1<Object, Boolean> condition,
+        final FR1<Object, ?> body
+    ) {
+        return UntypedPromiseImpl.factory.loop(exec, initial, condition, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, thenable or value, while the
+     * {@code condition} callback returns {@code true}. Each iteration starts after the one before it is fulfilled.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param condition The callback function deciding whether to run the next iteration
+     * @param body The callback function running an iteration
+     * @return The promise representing the loop execution state
+     */
+    public static Promise whileAsync(final Executor exec, final FR0<Boolean> condition, final FR0<?> body)
+    {
+        return UntypedPromiseImpl.factory.whileAsync(exec, condition, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, thenable or value, once and then again
+     * while the {@code condition} callback returns {@code true}. Each iteration starts after the one before it is
+     * fulfilled. Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param body The callback function running an iteration
+     * @param condition The callback function deciding whether to run the next iteration
+     * @return The promise representing the loop execution state
+     */
+    public static Promise doWhileAsync(final Executor exec, final FR0<?> body, final FR0<Boolean> condition)
+    {
+        return UntypedPromiseImpl.factory.doWhileAsync(exec, body, condition);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, thenable or value, for each index from
+     * {@code from} (inclusive) to {@code to} (exclusive) in sequence. Each iteration starts after the one before it is
+     * fulfilled. Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or the {@code body} callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param body The callback function running the iteration of an index
+     * @return The promise representing the loop execution state
+     */
+    public static Promise forAsync(final Executor exec, final int from, final int to, final FR1<Integer, ?> body)
+    {
+        return UntypedPromiseImpl.factory.forAsync(exec, from, to, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously selects a branch by the fulfilled value of the {@code predicate} promise: the {@code thenBranch}
+     * callback if the value is {@code true}, or the {@code elseBranch} callback otherwise. Only the selected callback
+     * is called, and the returned promise is resolved in the same way as the promise, thenable or value it returns.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} if the selected callback is {@code null}, or be
+     * rejected if the {@code predicate} promise is rejected or the selected callback throws.
+     *
+     * @param exec The executor on which the selected branch is built, or {@code null} to build it on the thread
+     *             settling the predicate promise
+     * @param predicate The promise deciding which branch is selected
+     * @param thenBranch The callback function building the branch selected by {@code true}
+     * @param elseBranch The callback function building the branch selected otherwise, or {@code null}
+     * @return The promise representing the selected branch
+     */
+    public static Promise ifAsync(
+        final Executor exec,
+        final Promise predicate,
+        final FR0<?> thenBranch,
+        final FR0<?> elseBranch
+    ) {
+        return UntypedPromiseImpl.factory.ifAsync(exec, predicate, thenBranch, elseBranch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously selects a branch by the fulfilled value of the {@code selector} promise: the callback mapped from
+     * the value in {@code cases}, or the {@code defaultBranch} callback if there is no such mapping. Only the selected
+     * callback is called, and the returned promise is resolved in the same way as the promise, thenable or value it
+     * returns.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} if the selected callback is {@code null}, or be
+     * rejected if the {@code selector} promise is rejected or the selected callback throws.
+     *
+     * @param exec The executor on which the selected branch is built, or {@code null} to build it on the thread
+     *             settling the selector promise
+     * @param selector The promise deciding which branch is selected
+     * @param cases The callback functions building the branches, mapped from the values selecting them
+     * @param defaultBranch The callback function building the branch selected by unmapped values, or {@code null}
+     * @return The promise representing the selected branch
+     */
+    public static Promise switchAsync(
+        final Executor exec,
+        final Promise selector,
+        final Map<?, ? extends FR0<?>> cases,
+        final FR0<?> defaultBranch
+    ) {
+        return UntypedPromiseImpl.factory.switchAsync(exec, selector, cases, defaultBranch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with {@code null} after the specified delay. The delays of all
+     * promises are tracked by a shared hashed-wheel timer with a 1-millisecond tick, running on a single daemon thread.
+     *
+     * @param millis The delay in milliseconds
+     * @return The created promise
+     */
+    public static Promise delay(final long millis)
+    {
+        return UntypedPromiseImpl.factory.delay(millis, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the specified value after the specified delay. The delays of all
+     * promises are tracked by a shared hashed-wheel timer with a 1-millisecond tick, running on a single daemon thread.
+     *
+     * @param millis The delay in milliseconds
+     * @param value The fulfilled value
+     * @return The created promise
+     */
+    public static Promise delay(final long millis, final Object value)
+    {
+        return UntypedPromiseImpl.factory.delay(millis, value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the specified promise, or is rejected with a
+     * {@link PromiseTimeoutException} if the specified promise is not resolved within the specified timeout. On
+     * the timeout, the new promise stops listening to the specified promise, which is left untouched.
+     *
+     * @param promise The promise to be waited for
+     * @param millis The timeout in milliseconds
+     * @return The created promise
+     */
+    public static Promise withTimeout(final Promise promise, final long millis)
+    {
+        return UntypedPromiseImpl.factory.withTimeout(promise, millis);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Cancels the specified promise if it is still pending, by rejecting it with a new
+     * {@link PromiseCancelledException}. Pending callbacks chained from it are rejected in the same way, and queued
+     * callbacks producing it are skipped. Once all of the promises chained from a pending promise are cancelled, that
+     * promise is cancelled as well, so that the upstream computation is skipped when it has not started yet.
+     *
+     * @param promise The promise to be cancelled
+     * @return {@code true} if the promise is cancelled by this call, or {@code false} if it is already resolved
+     */
+    public static boolean cancel(final Promise promise)
+    {
+        return UntypedPromiseImpl.factory.cancel(promise);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
 }
 //---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,129 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises;
+import promises.impl.ImplUtil;
+import java.io.Serializable;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines the outcomes of settled promises, kept in parallel arrays indexed by the positions of the promises.
+ *
+ * @param <V> Type of fulfilled values
+ * @param <R> Type of rejected reasons
+ */
+public final class Settlements<V, R> implements Serializable
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private final PromiseState[] states;
+    private final Object[] values;
+    private final Object[] reasons;
+    private final Throwable[] exceptions;
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Wraps the specified parallel arrays, which are not copied, as settlements.
+     *
+     * @param states The states of the settled promises
+     * @param values The fulfilled values of the settled promises
+     * @param reasons The rejected reasons of the settled promises
+     * @param exceptions The rejected exceptions of the settled promises
+     * @return The settlements
+     */
+    public static <V, R> Settlements<V, R> of(
+        final PromiseState[] states,
+        final Object[] values,
+        final Object[] reasons,
+        final Throwable[] exceptions
+    ) {
+        return new Settlements<V, R>(states, values, reasons, exceptions);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private Settlements(
+        final PromiseState[] states,
+        final Object[] values,
+        final Object[] reasons,
+        final Throwable[] exceptions
+    ) {
+        this.states = states;
+        this.values = values;
+        this.reasons = reasons;
+        this.exceptions = exceptions;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of the settled promises.
+     *
+     * @return The number of the settled promises
+     */
+    public final int size()
+    {
+        return states.length;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the state of the settled promise at the specified position.
+     *
+     * @param index The position of the settled promise
+     * @return {@link PromiseState#FULFILLED} or {@link PromiseState#REJECTED}
+     */
+    public final PromiseState state(final int index)
+    {
+        return states[index];
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the fulfilled value of the settled promise at the specified position, or {@code null} if it is rejected.
+     *
+     * @param index The position of the settled promise
+     * @return The fulfilled value
+     */
+    public final V value(final int index)
+    {
+        return ImplUtil.cast(values[index]);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the rejected reason of the settled promise at the specified position, or {@code null} if it is
+     * fulfilled.
+     *
+     * @param index The position of the settled promise
+     * @return The rejected reason
+     */
+    public final R reason(final int index)
+    {
+        return ImplUtil.cast(reasons[index]);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the rejected exception of the settled promise at the specified position, or {@code null} if it is
+     * fulfilled.
+     *
+     * @param index The position of the settled promise
+     * @return The rejected exception
+     */
+    public final Throwable exception(final int index)
+    {
+        return exceptions[index];
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final String toString()
+    {
+        final StringBuilder builder = new StringBuilder("[");
+
+        for (int i = 0; i < states.length; i++) {
+            if (i > 0)
+                builder.append(',');
+
+            if (states[i] == PromiseState.FULFILLED)
+                builder.append(values[i]);
+            else
+                builder.append(states[i]).append('(').append(reasons[i]).append(',').append(exceptions[i]).append(')');
+        }
+
+        return builder.append(']').toString();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
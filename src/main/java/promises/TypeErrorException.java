@@ -9,11 +9,12 @@ import promises.impl.ImplUtil;
 /**
  * Defines {@code TypeError} exceptions.
  */
-public final class TypeErrorException extends Exception
+public final class TypeErrorException extends BaseRejectionException
 {
     //-----------------------------------------------------------------------------------------------------------------
     /**
-     * The constructor of this exception.
+     * The constructor of this exception. The stack trace is not filled in if stackless rejections are enabled by
+     * {@link Promises#setStacklessRejections}.
      *
      * @param msgFormat The message format used by {@link String#format}
      * @param args The arguments used by the {@code msgFormat} argument
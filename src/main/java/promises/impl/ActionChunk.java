@@ -0,0 +1,190 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+//---------------------------------------------------------------------------------------------------------------------
+final class ActionChunk
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MAX_CAPACITY = 256;
+    private static final int SEALED = 1 << 30;
+    //-----------------------------------------------------------------------------------------------------------------
+    static final ResolveAction DETACHED = new ResolveAction() {
+        @Override public void setAlwaysPending() { }
+        @Override public void setFulfilled(final Object value) { }
+        @Override public void setRejected(final Object reason, final Throwable exception) { }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final ResolveAction CLAIMED = new ResolveAction() {
+        @Override public void setAlwaysPending() { }
+        @Override public void setFulfilled(final Object value) { }
+        @Override public void setRejected(final Object reason, final Throwable exception) { }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<ActionChunk>
+    countUpdater = AtomicIntegerFieldUpdater.newUpdater(ActionChunk.class, "count");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<ActionChunk>
+    detachedUpdater = AtomicIntegerFieldUpdater.newUpdater(ActionChunk.class, "detached");
+    //-----------------------------------------------------------------------------------------------------------------
+    private final AtomicReferenceArray<ResolveAction> slots;
+    private final ActionChunk prev;
+    private volatile int count;
+    private volatile int detached = 0;
+    private ActionChunk next = null;
+    //-----------------------------------------------------------------------------------------------------------------
+    ActionChunk(final ResolveAction first, final ResolveAction second)
+    {
+        this.slots = new AtomicReferenceArray<ResolveAction>(INITIAL_CAPACITY);
+        this.prev = null;
+        this.count = 2;
+        slots.lazySet(0, first);
+        slots.lazySet(1, second);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    ActionChunk(final ActionChunk prev, final ResolveAction first)
+    {
+        this.slots = new AtomicReferenceArray<ResolveAction>(Math.min(prev.slots.length() * 2, MAX_CAPACITY));
+        this.prev = prev;
+        this.count = 1;
+        slots.lazySet(0, first);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final int tryAdd(final ResolveAction action)
+    {
+        for (;;) {
+            final int count = this.count;
+
+            if (count >= slots.length())
+                return -1;
+
+            if (countUpdater.compareAndSet(this, count, count + 1)) {
+                slots.set(count, action);
+                return count;
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final int tryReuse(final ResolveAction action)
+    {
+        if (detached == 0)
+            return -1;
+
+        for (int index = 0, size = size(); index < size; index++) {
+            if (slots.get(index) == DETACHED && slots.compareAndSet(index, DETACHED, action)) {
+                detachedUpdater.decrementAndGet(this);
+                return index;
+            }
+        }
+
+        return -1;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void removeAt(final int index, final ResolveAction action)
+    {
+        if (slots.compareAndSet(index, action, DETACHED))
+            detachedUpdater.incrementAndGet(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean remove(final ResolveAction action)
+    {
+        for (ActionChunk chunk = this; chunk != null; chunk = chunk.prev) {
+            for (int index = 0, size = chunk.size(); index < size; index++) {
+                if (chunk.slots.get(index) == action && chunk.slots.compareAndSet(index, action, DETACHED)) {
+                    detachedUpdater.incrementAndGet(chunk);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean tryClaimDetached()
+    {
+        seal();
+
+        for (ActionChunk chunk = this; chunk != null; chunk = chunk.prev) {
+            for (int index = 0, size = chunk.size(); index < size; index++) {
+                if (!chunk.slots.compareAndSet(index, DETACHED, CLAIMED)) {
+                    releaseClaimed();
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void releaseClaimed()
+    {
+        for (ActionChunk chunk = this; chunk != null; chunk = chunk.prev) {
+            for (int index = 0, size = chunk.size(); index < size; index++)
+                chunk.slots.compareAndSet(index, CLAIMED, DETACHED);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void removeFirst(final ResolveAction action)
+    {
+        ActionChunk first = this;
+
+        while (first.prev != null)
+            first = first.prev;
+
+        first.removeAt(0, action);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void seal()
+    {
+        for (;;) {
+            final int count = this.count;
+
+            if ((count & SEALED) != 0 || countUpdater.compareAndSet(this, count, count | SEALED))
+                return;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ActionChunk sealInOrder()
+    {
+        seal();
+
+        ActionChunk first = this;
+
+        for (; first.prev != null; first = first.prev)
+            first.prev.next = first;
+
+        return first;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ActionChunk next()
+    {
+        return next;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ActionChunk prev()
+    {
+        return prev;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final int size()
+    {
+        return count & ~SEALED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ResolveAction get(final int index)
+    {
+        ResolveAction action;
+
+        while ((action = slots.get(index)) == null)
+            Thread.yield();
+
+        return action;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
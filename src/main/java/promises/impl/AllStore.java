@@ -0,0 +1,89 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+final class AllStore extends PromiseStore
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<AllStore>
+    remainingUpdater = AtomicIntegerFieldUpdater.newUpdater(AllStore.class, "remaining");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Element implements ResolveAction
+    {
+        private final AllStore store;
+        private final int index;
+
+        Element(final AllStore store, final int index) {
+            this.store = store;
+            this.index = index;
+        }
+
+        @Override public void setAlwaysPending() { }
+        @Override public void setFulfilled(final Object value) { store.fulfillAt(index, value); }
+
+        @Override public void setRejected(final Object reason, final Throwable exception) {
+            store.rejectOnce(reason, exception);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final Object[] results;
+    private volatile int remaining;
+    //-----------------------------------------------------------------------------------------------------------------
+    private AllStore(final int count)
+    {
+        this.results = new Object[count];
+        this.remaining = count;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static AllStore of(final Object[] promises)
+    {
+        final AllStore store = new AllStore(promises.length);
+
+        if (promises.length == 0) {
+            store.setFulfilled(Arrays.asList(store.results));
+            return store;
+        }
+
+        for (int i = 0; i < promises.length && store.remaining > 0; i++) {
+            try {
+                BaseResolver.resolveValue(promises[i], new Element(store, i));
+            } catch (final Throwable e) {
+                store.rejectOnce(null, e);
+            }
+        }
+
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void fulfillAt(final int index, final Object value)
+    {
+        results[index] = MultiValue.materialize(value);
+
+        for (;;) {
+            final int remaining = this.remaining;
+
+            if (remaining <= 0)
+                return;
+
+            if (remainingUpdater.compareAndSet(this, remaining, remaining - 1)) {
+                if (remaining == 1)
+                    setFulfilled(Arrays.asList(results));
+
+                return;
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void rejectOnce(final Object reason, final Throwable exception)
+    {
+        if (remainingUpdater.getAndSet(this, 0) > 0)
+            setRejected(reason, exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,289 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.FR1;
+import promises.PromiseState;
+import promises.lw.AsyncCache;
+import promises.lw.CacheStats;
+import promises.lw.P;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+//---------------------------------------------------------------------------------------------------------------------
+final class AsyncCacheImpl<K, V> implements AsyncCache<K, V>
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Entry<K> implements ResolveAction
+    {
+        private final AsyncCacheImpl<K, ?> cache;
+        private final K key;
+        private final PromiseStore store = new PromiseStore();
+        private final long loadStart;
+        private volatile long writeTime = 0;
+        private volatile long accessTime = 0;
+        private volatile boolean accessed = false;
+        private Entry<K> prev = null;
+        private Entry<K> next = null;
+        private boolean linked = false;
+        private boolean removed = false;
+
+        Entry(final AsyncCacheImpl<K, ?> cache, final K key, final long loadStart) {
+            this.cache = cache;
+            this.key = key;
+            this.loadStart = loadStart;
+        }
+
+        @Override public void setAlwaysPending() { store.setAlwaysPending(); }
+
+        @Override public void setFulfilled(final Object value) {
+            final long now = System.nanoTime();
+
+            writeTime = now;
+            accessTime = now;
+            cache.loadSuccesses.incrementAndGet();
+            cache.totalLoadTime.addAndGet(now - loadStart);
+            store.setFulfilled(value);
+        }
+
+        @Override public void setRejected(final Object reason, final Throwable exception) {
+            cache.loadFailures.incrementAndGet();
+            cache.totalLoadTime.addAndGet(System.nanoTime() - loadStart);
+            cache.remove(this);
+            store.setRejected(reason, exception);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final ConcurrentHashMap<K, Entry<K>> entries = new ConcurrentHashMap<K, Entry<K>>();
+    private final int capacity;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final FR1<? super K, ?> loader;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loadSuccesses = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private Entry<K> head = null;
+    private Entry<K> tail = null;
+    private int linkedCount = 0;
+    //-----------------------------------------------------------------------------------------------------------------
+    AsyncCacheImpl(
+        final int capacity,
+        final long expireAfterWrite,
+        final long expireAfterAccess,
+        final FR1<? super K, ?> loader
+    ) {
+        this.capacity = capacity;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.loader = loader;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private P<V> promise(final Entry<K> entry)
+    {
+        final PromiseStore store = entry.store;
+
+        if (store.state() != PromiseState.PENDING)
+            return store.createPromise(LightWeightPromiseImpl.<V>factory());
+
+        final PromiseStore consumer = new PromiseStore();
+        store.applyResolveAction(consumer);
+        return consumer.createPromise(LightWeightPromiseImpl.<V>factory());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean isStale(final Entry<K> entry, final long now)
+    {
+        final PromiseStore store = entry.store;
+
+        if (store.isCancelled())
+            return true;
+
+        if (!store.isFulfilled())
+            return false;
+
+        return expireAfterWrite > 0 && now - entry.writeTime >= expireAfterWrite
+            || expireAfterAccess > 0 && now - entry.accessTime >= expireAfterAccess;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private P<V> hit(final Entry<K> entry, final long now)
+    {
+        hits.incrementAndGet();
+
+        if (expireAfterAccess > 0)
+            entry.accessTime = now;
+
+        if (!entry.accessed)
+            entry.accessed = true;
+
+        return promise(entry);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void load(final Entry<K> entry)
+    {
+        try {
+            BaseResolver.resolveValue(loader.call(entry.key), entry);
+        } catch (final Throwable e) {
+            entry.setRejected(null, e);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void linkLast(final Entry<K> entry)
+    {
+        entry.prev = tail;
+        entry.next = null;
+        entry.linked = true;
+
+        if (tail == null)
+            head = entry;
+        else
+            tail.next = entry;
+
+        tail = entry;
+        linkedCount++;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void unlink(final Entry<K> entry)
+    {
+        if (entry.prev == null)
+            head = entry.next;
+        else
+            entry.prev.next = entry.next;
+
+        if (entry.next == null)
+            tail = entry.prev;
+        else
+            entry.next.prev = entry.prev;
+
+        entry.prev = null;
+        entry.next = null;
+        entry.linked = false;
+        linkedCount--;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private synchronized void link(final Entry<K> entry)
+    {
+        if (entry.removed)
+            return;
+
+        linkLast(entry);
+
+        for (int chances = linkedCount; linkedCount > capacity; ) {
+            final Entry<K> eldest = head;
+
+            unlink(eldest);
+
+            if (eldest.accessed && chances-- > 0) {
+                eldest.accessed = false;
+                linkLast(eldest);
+                continue;
+            }
+
+            eldest.removed = true;
+            entries.remove(eldest.key, eldest);
+            evictions.incrementAndGet();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void remove(final Entry<K> entry)
+    {
+        entries.remove(entry.key, entry);
+
+        synchronized (this) {
+            if (entry.linked)
+                unlink(entry);
+
+            entry.removed = true;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final P<V> get(final K key)
+    {
+        final long now = System.nanoTime();
+        Entry<K> entry = entries.get(key);
+
+        for (;;) {
+            if (entry != null) {
+                if (!isStale(entry, now))
+                    return hit(entry, now);
+
+                remove(entry);
+            }
+
+            final Entry<K> created = new Entry<K>(this, key, now);
+            entry = entries.putIfAbsent(key, created);
+
+            if (entry == null) {
+                misses.incrementAndGet();
+                link(created);
+                load(created);
+                return promise(created);
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final P<V> getIfPresent(final K key)
+    {
+        final long now = System.nanoTime();
+        final Entry<K> entry = entries.get(key);
+
+        if (entry != null) {
+            if (!isStale(entry, now))
+                return hit(entry, now);
+
+            remove(entry);
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void invalidate(final K key)
+    {
+        final Entry<K> entry = entries.get(key);
+
+        if (entry != null)
+            remove(entry);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void invalidateAll()
+    {
+        for (final Entry<K> entry : entries.values())
+            remove(entry);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void cleanUp()
+    {
+        final long now = System.nanoTime();
+
+        for (final Entry<K> entry : entries.values()) {
+            if (isStale(entry, now))
+                remove(entry);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final int size()
+    {
+        return entries.size();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final CacheStats stats()
+    {
+        return CacheStats.of(
+            hits.get(), misses.get(),
+            loadSuccesses.get(), loadFailures.get(), totalLoadTime.get(),
+            evictions.get()
+        );
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,138 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.FR0;
+import promises.FR1;
+import java.util.concurrent.Executor;
+//---------------------------------------------------------------------------------------------------------------------
+final class AsyncLoop extends ResumableAction
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int FOLD = 0;
+    private static final int WHILE = 1;
+    private static final int DO_WHILE = 2;
+    private static final int FOR = 3;
+    //-----------------------------------------------------------------------------------------------------------------
+    private final PromiseStore store = new PromiseStore();
+    private final int kind;
+    private final Executor exec;
+    private final Object condition;
+    private final Object body;
+    private final int end;
+    private Object state;
+    private int index;
+    private boolean started = false;
+    //-----------------------------------------------------------------------------------------------------------------
+    private AsyncLoop(
+        final int kind,
+        final Executor exec,
+        final Object condition,
+        final Object body,
+        final Object state,
+        final int index,
+        final int end
+    ) {
+        this.kind = kind;
+        this.exec = exec;
+        this.condition = condition;
+        this.body = body;
+        this.state = state;
+        this.index = index;
+        this.end = end;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private PromiseStore start()
+    {
+        dispatch(exec);
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PromiseStore fold(final Executor exec, final Object initial, final FR1<?, ?> condition, final FR1<?, ?> body)
+    {
+        return new AsyncLoop(FOLD, exec, condition, body, initial, 0, 0).start();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PromiseStore whileLoop(
+        final Executor exec,
+        final FR0<?> condition,
+        final FR0<?> body,
+        final boolean bodyFirst
+    ) {
+        return new AsyncLoop(bodyFirst ? DO_WHILE : WHILE, exec, condition, body, null, 0, 0).start();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PromiseStore forLoop(final Executor exec, final int from, final int to, final FR1<Integer, ?> body)
+    {
+        return new AsyncLoop(FOR, exec, null, body, null, from, to).start();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean proceeds() throws Throwable
+    {
+        switch (kind) {
+        case FOLD:
+            return Boolean.TRUE.equals(ImplUtil.<FR1<Object, ?>>cast(condition).call(state));
+
+        case WHILE:
+            return Boolean.TRUE.equals(((FR0<?>) condition).call());
+
+        case DO_WHILE:
+            return !started || Boolean.TRUE.equals(((FR0<?>) condition).call());
+
+        default:
+            return index < end;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private Object callBody() throws Throwable
+    {
+        switch (kind) {
+        case FOLD: return ImplUtil.<FR1<Object, ?>>cast(body).call(state);
+        case FOR:  return ImplUtil.<FR1<Integer, ?>>cast(body).call(index);
+        default:   return ((FR0<?>) body).call();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    final void step()
+    {
+        try {
+            if (!proceeds()) {
+                store.setFulfilled(state);
+                return;
+            }
+
+            started = true;
+            BaseResolver.resolveValue(callBody(), this);
+        } catch (final Throwable e) {
+            store.setRejected(null, e);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setAlwaysPending()
+    {
+        store.setAlwaysPending();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setFulfilled(final Object value)
+    {
+        if (kind == FOLD)
+            state = MultiValue.materialize(value);
+        else if (kind == FOR)
+            index++;
+
+        dispatch(exec);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setRejected(final Object reason, final Throwable exception)
+    {
+        store.setRejected(reason, exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
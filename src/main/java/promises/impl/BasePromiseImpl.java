@@ -4,13 +4,71 @@
 // found at http://www.apache.org/licenses/LICENSE-2.0
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
+import promises.PromiseRejectedException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 //---------------------------------------------------------------------------------------------------------------------
 abstract class BasePromiseImpl
 {
+    //-----------------------------------------------------------------------------------------------------------------
+    static final int ORIGIN = 0;
+    static final int FULFILLED = 1;
+    static final int REJECTED = 2;
+    static final int ALWAYS_PENDING = 3;
+    static final int MUTABLE = 4;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<BasePromiseImpl, Object[]>
+    viewsUpdater = AtomicReferenceFieldUpdater.newUpdater(BasePromiseImpl.class, Object[].class, "views");
+    //-----------------------------------------------------------------------------------------------------------------
+    private volatile Object[] views = null;
     //-----------------------------------------------------------------------------------------------------------------
     abstract String type();
     //-----------------------------------------------------------------------------------------------------------------
     abstract void applyResolveAction(final ResolveAction resAction);
     //-----------------------------------------------------------------------------------------------------------------
+    <PO> PO resolvedPromise(final PromiseFactory<PO> factory)
+    {
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    PromiseStore mutableStore()
+    {
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    ChainStage<?, ?> settleInto(final ChainStage<?, ?> dstStage)
+    {
+        applyResolveAction(dstStage.dstStore());
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final <PO> PO resolvedView(final PromiseFactory<PO> factory)
+    {
+        final int style = PromiseViews.styleOf(factory);
+
+        if (style < 0)
+            return resolvedPromise(factory);
+
+        final Object[] views = this.views;
+
+        if (views != null && views[style] != null)
+            return ImplUtil.cast(views[style]);
+
+        final PO promise = resolvedPromise(factory);
+        return ImplUtil.cast(PromiseViews.publish(viewsUpdater, this, PromiseViews.SLOTS, style, promise));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final PromiseRejectedException rejectedException(final Object reason, final Throwable exception)
+    {
+        final Object[] views = this.views;
+
+        if (views != null && views[PromiseViews.REJECTION] != null)
+            return (PromiseRejectedException) views[PromiseViews.REJECTION];
+
+        final PromiseRejectedException rejected = new PromiseRejectedException(this, reason, exception);
+        return (PromiseRejectedException) PromiseViews.publish(
+            viewsUpdater, this, PromiseViews.SLOTS, PromiseViews.REJECTION, rejected
+        );
+    }
+    //-----------------------------------------------------------------------------------------------------------------
 }
 //---------------------------------------------------------------------------------------------------------------------
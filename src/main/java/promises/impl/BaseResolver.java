@@ -4,13 +4,11 @@
 // found at http://www.apache.org/licenses/LICENSE-2.0
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
+import promises.Adoptable;
 import promises.PromiseState;
 import promises.TypeErrorException;
-import promises.lw.OnFul;
-import promises.lw.OnRej;
 import promises.lw.P;
 import promises.lw.RV;
-import promises.lw.RejP;
 import promises.lw.ResP;
 import promises.typed.Resolution;
 import java.util.concurrent.Executor;
@@ -20,167 +18,57 @@ abstract class BaseResolver<VCI, RCI>
     //-----------------------------------------------------------------------------------------------------------------
     private static void resolveByUntypedPromise(final promises.Promise promise, final ResolveAction action)
     {
-        final OnePass onePass = new OnePass();
-
-        promise.then(
-            null,
-            new promises.OnFulfilled<Object>() { @Override public Object call(final Object value) {
-                if (onePass.pass())
-                    action.setFulfilled(value);
-                return UntypedPromiseImpl.factory.alwaysPendingPromise();
-            }},
-            new promises.OnRejected<Object>() {
-                @Override public Object call(final Object reason, final Throwable exception) {
-                    if (onePass.pass())
-                        action.setRejected(reason, exception);
-                    return UntypedPromiseImpl.factory.alwaysPendingPromise();
-                }
-            }
-        );
+        final ForeignAdoption.OfUntypedPromise adoption = new ForeignAdoption.OfUntypedPromise(action);
+        promise.then(null, adoption, adoption);
     }
     //-----------------------------------------------------------------------------------------------------------------
     private static void resolveByTypedPromise(final promises.typed.Promise<?, ?> promise, final ResolveAction action)
     {
-        final OnePass onePass = new OnePass();
-
-        promise.then(
-            null,
-            new promises.typed.OnFulfilled<Object, Object, Object>() {
-                @Override public Resolution<?, ?> call(final Object value) {
-                    if (onePass.pass())
-                        action.setFulfilled(value);
-                    return TypedPromiseImpl.factory().alwaysPendingPromise();
-                }
-            },
-            new promises.typed.OnRejected<Object, Object, Object>() {
-                @Override public Resolution<?, ?> call(final Object reason, final Throwable exception) {
-                    if (onePass.pass())
-                        action.setRejected(reason, exception);
-                    return TypedPromiseImpl.factory().alwaysPendingPromise();
-                }
-            }
-        );
+        final ForeignAdoption.OfTypedPromise adoption = new ForeignAdoption.OfTypedPromise(action);
+        promise.then(null, adoption, adoption);
     }
     //-----------------------------------------------------------------------------------------------------------------
     private static void resolveByLightWeightPromise(final P<?> promise, final ResolveAction action)
     {
-        final OnePass onePass = new OnePass();
-
-        promise.then(
-            null,
-            new OnFul<Object, Object>() { @Override public RV<?> call(final Object value) {
-                if (onePass.pass())
-                    action.setFulfilled(value);
-                return LightWeightPromiseImpl.factory().alwaysPendingPromise();
-            }},
-            new OnRej<Object>() { @Override public RV<?> call(final Throwable exception) {
-                if (onePass.pass())
-                    action.setRejected(null, exception);
-                return LightWeightPromiseImpl.factory().alwaysPendingPromise();
-            }}
-        );
+        final ForeignAdoption.OfLightWeightPromise adoption = new ForeignAdoption.OfLightWeightPromise(action);
+        promise.then(null, adoption, adoption.onRejected);
     }
     //-----------------------------------------------------------------------------------------------------------------
     private static void resolveByUntypedThenable(final promises.Thenable thenable, final ResolveAction action)
     {
-        final OnePass onePass = new OnePass();
+        final ForeignAdoption.OfUntypedThenable adoption = new ForeignAdoption.OfUntypedThenable(action);
 
         try {
-            thenable.then(
-                new promises.ResolvePromise() { @Override public void resolve(final Object value) {
-                    if (onePass.pass())
-                        resolveValue(value, action);
-                }},
-                new promises.RejectPromise() {
-                    @Override public void reject(final Object reason, final Throwable exception) {
-                        if (onePass.pass())
-                            action.setRejected(reason, exception);
-                    }
-
-                    @Override public void reject(final Object reason) {
-                        if (onePass.pass())
-                            action.setRejected(reason, null);
-                    }
-
-                    @Override public void reject(final Throwable exception) {
-                        if (onePass.pass())
-                            action.setRejected(null, exception);
-                    }
-                }
-            );
+            thenable.then(adoption, adoption);
         } catch (final Throwable e) {
-            if (onePass.pass())
-                action.setRejected(null, e);
+            adoption.rejectOnce(null, e);
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
     private static <V, R> void
     resolveByTypedThenable(final promises.typed.Thenable<V, R> thenable, final ResolveAction action)
     {
-        final OnePass onePass = new OnePass();
+        final ForeignAdoption.OfTypedThenable adoption = new ForeignAdoption.OfTypedThenable(action);
 
         try {
             thenable.then(
-                new promises.typed.ResolvePromise<V, R>() {
-                    @Override public void resolve(final Resolution<? extends V, ? extends R> res) {
-                        if (onePass.pass())
-                            resolveValue(res, action);
-                    }
-
-                    @Override public void resolve(final Object value) {
-                        if (onePass.pass())
-                            action.setFulfilled(value);
-                    }
-                },
-                new promises.typed.RejectPromise<R>() {
-                    @Override public void reject(final R reason, final Throwable exception) {
-                        if (onePass.pass())
-                            action.setRejected(reason, exception);
-                    }
-
-                    @Override public void reject(final R reason) {
-                        if (onePass.pass())
-                            action.setRejected(reason, null);
-                    }
-
-                    @Override public void reject(final Throwable exception) {
-                        if (onePass.pass())
-                            action.setRejected(null, exception);
-                    }
-                }
+                ImplUtil.<promises.typed.ResolvePromise<V, R>>cast(adoption),
+                ImplUtil.<promises.typed.RejectPromise<R>>cast(adoption)
             );
         } catch (final Throwable e) {
-            if (onePass.pass())
-                action.setRejected(null, e);
+            adoption.rejectOnce(null, e);
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
     private static <V> void
     resolveByLightWeightThenable(final promises.lw.Thenable<V> thenable, final ResolveAction action)
     {
-        final OnePass onePass = new OnePass();
+        final ForeignAdoption.OfLightWeightThenable adoption = new ForeignAdoption.OfLightWeightThenable(action);
 
         try {
-            thenable.then(
-                new ResP<V>() {
-                    @Override public void resolve(final RV<? extends V> res) {
-                        if (onePass.pass())
-                            resolveValue(res, action);
-                    }
-
-                    @Override public void resolve(final Object value) {
-                        if (onePass.pass())
-                            action.setFulfilled(value);
-                    }
-                },
-                new RejP() { @Override public void reject(final Throwable exception) {
-                    if (onePass.pass())
-                        action.setRejected(null, exception);
-                }}
-            );
+            thenable.then(ImplUtil.<ResP<V>>cast(adoption), adoption);
         } catch (final Throwable e) {
-            if (onePass.pass())
-                action.setRejected(null, e);
+            adoption.rejectOnce(null, e);
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
@@ -214,6 +102,11 @@ abstract class BaseResolver<VCI, RCI>
             return;
         }
 
+        if (value instanceof Adoptable) {
+            ((Adoptable) value).subscribe(action);
+            return;
+        }
+
         if (value instanceof promises.Promise) {
             resolveByUntypedPromise((promises.Promise) value, action);
             return;
@@ -244,6 +137,11 @@ abstract class BaseResolver<VCI, RCI>
             return;
         }
 
+        if (value instanceof MultiValue) {
+            action.setFulfilled(value);
+            return;
+        }
+
         if (value instanceof Resolution) {
             resolveByResolution((Resolution<?, ?>) value, action);
             return;
@@ -257,6 +155,110 @@ abstract class BaseResolver<VCI, RCI>
         action.setFulfilled(value);
     }
     //-----------------------------------------------------------------------------------------------------------------
+    private static boolean isPlainValue(final Object value)
+    {
+        if (value instanceof MultiValue)
+            return true;
+
+        return !(value instanceof RV || value instanceof BasePromiseImpl || value instanceof Adoptable
+            || value instanceof promises.Promise || value instanceof promises.Thenable
+            || value instanceof promises.typed.Thenable);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static boolean isPlainResolution(final Object value)
+    {
+        return value instanceof RV && !(value instanceof BasePromiseImpl || value instanceof Adoptable
+            || value instanceof promises.Promise || value instanceof promises.typed.Promise || value instanceof P
+            || value instanceof promises.Thenable || value instanceof promises.typed.Thenable
+            || value instanceof promises.lw.Thenable);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static ChainStage<?, ?> settleResolution(final RV<?> rv, final ChainStage<?, ?> dstStage)
+    {
+        if (!(rv instanceof Resolution))
+            return dstStage.settleFulfilled(rv.value());
+
+        final Resolution<?, ?> res = (Resolution<?, ?>) rv;
+        final PromiseState state = res.state();
+
+        if (state == null)
+            return dstStage.settleRejected(null, new NullPointerException("Null resolution state"));
+
+        switch (state) {
+        case FULFILLED:
+            return dstStage.settleFulfilled(res.value());
+
+        case REJECTED:
+            return dstStage.settleRejected(res.reason(), res.exception());
+
+        default:
+            return dstStage.settleRejected(null, new TypeErrorException("Invalid resolution state %s", state));
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static <PO> PO resolvedDstPromise(final PromiseFactory<PO> factory, final Object value)
+    {
+        if (isPlainValue(value))
+            return factory.fulfilledPromise(value);
+
+        if (value instanceof BasePromiseImpl) {
+            final PO promise = ((BasePromiseImpl) value).resolvedPromise(factory);
+
+            if (promise != null)
+                return promise;
+        }
+
+        final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
+
+        try {
+            resolveValue(value, chain);
+        } catch (final Throwable e) {
+            chain.setRejected(null, e);
+        }
+
+        return chain.dstPromise();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static ChainStage<?, ?> settleValue(final Object value, final ChainStage<?, ?> dstStage)
+    {
+        if (isPlainValue(value))
+            return dstStage.settleFulfilled(value);
+
+        if (value instanceof BasePromiseImpl)
+            return ((BasePromiseImpl) value).settleInto(dstStage);
+
+        if (isPlainResolution(value)) {
+            try {
+                return settleResolution((RV<?>) value, dstStage);
+            } catch (final Throwable e) {
+                return dstStage.settleRejected(null, e);
+            }
+        }
+
+        final PromiseStore dstStore = dstStage.dstStore();
+
+        try {
+            resolveValue(value, dstStore);
+        } catch (final Throwable e) {
+            dstStore.setRejected(null, e);
+        }
+
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static boolean isCancelled(final ResolveAction resAction)
+    {
+        if (resAction instanceof PromiseStore)
+            return ((PromiseStore) resAction).isCancelled();
+
+        return resAction instanceof ResolvedChain && ((ResolvedChain<?>) resAction).isCancelled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    boolean isDeferred()
+    {
+        return false;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     abstract <PO> PO delayedChainDstPromise(
         final PromiseStore store,
         final PromiseFactory<PO> factory,
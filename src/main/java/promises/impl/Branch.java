@@ -0,0 +1,119 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.FR0;
+import java.util.Map;
+import java.util.concurrent.Executor;
+//---------------------------------------------------------------------------------------------------------------------
+final class Branch implements Runnable, ResolveAction
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private final PromiseStore store = new PromiseStore();
+    private final Executor exec;
+    private final Map<?, ? extends FR0<?>> cases;
+    private final FR0<?> thenBranch;
+    private final FR0<?> elseBranch;
+    private Object selected = null;
+    //-----------------------------------------------------------------------------------------------------------------
+    private Branch(
+        final Executor exec,
+        final Map<?, ? extends FR0<?>> cases,
+        final FR0<?> thenBranch,
+        final FR0<?> elseBranch
+    ) {
+        this.exec = exec;
+        this.cases = cases;
+        this.thenBranch = thenBranch;
+        this.elseBranch = elseBranch;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private PromiseStore start(final Object selector)
+    {
+        try {
+            BaseResolver.resolveValue(selector, this);
+        } catch (final Throwable e) {
+            store.setRejected(null, e);
+        }
+
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PromiseStore ifElse(
+        final Executor exec,
+        final Object predicate,
+        final FR0<?> thenBranch,
+        final FR0<?> elseBranch
+    ) {
+        return new Branch(exec, null, thenBranch, elseBranch).start(predicate);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PromiseStore switchCase(
+        final Executor exec,
+        final Object selector,
+        final Map<?, ? extends FR0<?>> cases,
+        final FR0<?> defaultBranch
+    ) {
+        return new Branch(exec, cases, null, defaultBranch).start(selector);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private FR0<?> select(final Object selected)
+    {
+        if (cases == null)
+            return Boolean.TRUE.equals(selected) ? thenBranch : elseBranch;
+
+        final FR0<?> branch = cases.get(selected);
+        return branch != null ? branch : elseBranch;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void run()
+    {
+        final Object selected = this.selected;
+        this.selected = null;
+
+        try {
+            final FR0<?> branch = select(selected);
+
+            if (branch == null)
+                store.setFulfilled(null);
+            else
+                BaseResolver.resolveValue(branch.call(), store);
+        } catch (final Throwable e) {
+            store.setRejected(null, e);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setAlwaysPending()
+    {
+        store.setAlwaysPending();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setFulfilled(final Object value)
+    {
+        selected = MultiValue.materialize(value);
+
+        if (exec == null) {
+            run();
+            return;
+        }
+
+        try {
+            exec.execute(this);
+        } catch (final Throwable e) {
+            store.setRejected(null, e);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setRejected(final Object reason, final Throwable exception)
+    {
+        store.setRejected(reason, exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
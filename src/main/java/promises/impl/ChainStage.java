@@ -0,0 +1,267 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.BatchExecutor;
+import promises.InlineExecutor;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+final class ChainStage<VCI, RCI> implements ResolveAction, Runnable
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Object FULFILLED = new Object();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Object REJECTED = new Object();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Object ALWAYS_PENDING = new Object();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<ChainStage<?, ?>, Object>
+    tailUpdater = ImplUtil.cast(AtomicReferenceFieldUpdater.newUpdater(ChainStage.class, Object.class, "tail"));
+    //-----------------------------------------------------------------------------------------------------------------
+    private Object src;
+    private final Executor exec;
+    private final FulfilledResolver<VCI, ?> fulResolver;
+    private final VCI onFulfilled;
+    private final int onFulStackDiff;
+    private final RejectedResolver<?, RCI> rejResolver;
+    private final RCI onRejected;
+    private final int onRejStackDiff;
+    private volatile Object tail = null;
+    private Object value = null;
+    private Object reason = null;
+    private Throwable exception = null;
+    //-----------------------------------------------------------------------------------------------------------------
+    ChainStage(
+        final Object src,
+        final Executor exec,
+        final FulfilledResolver<VCI, ?> fulResolver,
+        final VCI onFulfilled,
+        final int onFulStackDiff,
+        final RejectedResolver<?, RCI> rejResolver,
+        final RCI onRejected,
+        final int onRejStackDiff
+    ) {
+        this.src = src;
+        this.exec = exec;
+        this.fulResolver = fulResolver;
+        this.onFulfilled = onFulfilled;
+        this.onFulStackDiff = onFulStackDiff;
+        this.rejResolver = rejResolver;
+        this.onRejected = onRejected;
+        this.onRejStackDiff = onRejStackDiff;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static void runSettled(ChainStage<?, ?> stage)
+    {
+        while (stage != null && !stage.isCancelled())
+            stage = stage.execAndSettle();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static Object settledOf(final Object src)
+    {
+        return src instanceof ChainStage ? ((ChainStage<?, ?>) src).tail : src;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean isSrcFulfilled()
+    {
+        final Object settled = settledOf(src);
+        return settled instanceof PromiseStore ? ((PromiseStore) settled).isFulfilled() : settled == FULFILLED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private ChainStage<?, ?> execAndSettle(
+        final FulfilledResolver<VCI, ?> fulResolver,
+        final RejectedResolver<?, RCI> rejResolver
+    ) {
+        final Object src = this.src;
+        final Object settled = settledOf(src);
+        this.src = null;
+
+        if (settled instanceof PromiseStore) {
+            final PromiseStore store = (PromiseStore) settled;
+
+            return store.isFulfilled()
+                ? fulResolver.execAndSettle(store.value, exec, onFulfilled, onFulStackDiff, this)
+                : rejResolver.execAndSettle(store.reason, store.exception, exec, onRejected, onRejStackDiff, this);
+        }
+
+        final ChainStage<?, ?> srcStage = (ChainStage<?, ?>) src;
+
+        return settled == FULFILLED
+            ? fulResolver.execAndSettle(srcStage.value, exec, onFulfilled, onFulStackDiff, this)
+            : rejResolver.execAndSettle(srcStage.reason, srcStage.exception, exec, onRejected, onRejStackDiff, this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private ChainStage<?, ?> execAndSettle()
+    {
+        return execAndSettle(fulResolver, rejResolver);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final PromiseStore srcStore()
+    {
+        final Object src = this.src;
+        return src instanceof ChainStage ? ((ChainStage<?, ?>) src).dstStore() : (PromiseStore) src;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final PromiseStore dstStore()
+    {
+        for (;;) {
+            final Object tail = this.tail;
+
+            if (tail instanceof PromiseStore)
+                return (PromiseStore) tail;
+
+            final PromiseStore store = new PromiseStore();
+
+            if (tail == FULFILLED)
+                store.initFulfilled(value);
+            else if (tail == REJECTED)
+                store.initRejected(reason, exception);
+            else if (tail == ALWAYS_PENDING)
+                store.initAlwaysPending();
+            else
+                store.initPending((ChainStage<?, ?>) tail, this);
+
+            if (tailUpdater.compareAndSet(this, tail, store))
+                return store;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean isCancelled()
+    {
+        final Object tail = this.tail;
+        return tail instanceof PromiseStore && ((PromiseStore) tail).isCancelled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ChainStage<?, ?> settleFulfilled(final Object value)
+    {
+        this.value = value;
+
+        for (;;) {
+            final Object tail = this.tail;
+
+            if (tail instanceof PromiseStore)
+                return ((PromiseStore) tail).settleFulfilled(value);
+
+            if (tailUpdater.compareAndSet(this, tail, FULFILLED))
+                return (ChainStage<?, ?>) tail;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ChainStage<?, ?> settleRejected(final Object reason, final Throwable exception)
+    {
+        this.reason = reason;
+        this.exception = exception;
+
+        for (;;) {
+            final Object tail = this.tail;
+
+            if (tail instanceof PromiseStore)
+                return ((PromiseStore) tail).settleRejected(reason, exception);
+
+            if (tailUpdater.compareAndSet(this, tail, REJECTED))
+                return (ChainStage<?, ?>) tail;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private ChainStage<?, ?> settleAlwaysPending()
+    {
+        src = null;
+
+        for (;;) {
+            final Object tail = this.tail;
+
+            if (tail instanceof PromiseStore) {
+                ((PromiseStore) tail).setAlwaysPending();
+                return null;
+            }
+
+            if (tailUpdater.compareAndSet(this, tail, ALWAYS_PENDING))
+                return (ChainStage<?, ?>) tail;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final <VC, RC, PO> PO doThen(
+        final PromiseFactory<PO> factory,
+        final Executor exec,
+        final FulfilledResolver<VC, RC> fulResolver,
+        final VC onFulfilled,
+        final int onFulStackDiff,
+        final RejectedResolver<VC, RC> rejResolver,
+        final RC onRejected,
+        final int onRejStackDiff
+    ) {
+        if (exec == null && tail == null && (onFulfilled != null || onRejected != null)) {
+            final ChainStage<VC, RC> stage = new ChainStage<VC, RC>(
+                this, null,
+                fulResolver, onFulfilled, onFulStackDiff,
+                rejResolver, onRejected, onRejStackDiff
+            );
+
+            if (tailUpdater.compareAndSet(this, null, stage))
+                return factory.chainedPromise(stage);
+        }
+
+        return dstStore().doThen(
+            factory, exec,
+            fulResolver, onFulfilled, onFulStackDiff,
+            rejResolver, onRejected, onRejStackDiff
+        );
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final BatchExecutor batchExecutor()
+    {
+        if (!(exec instanceof BatchExecutor))
+            return null;
+
+        if (exec instanceof InlineExecutor && ((InlineExecutor) exec).inExecutorThread())
+            return null;
+
+        final boolean isDispatched = isSrcFulfilled()
+            ? fulResolver.inPlace() != fulResolver
+            : rejResolver.inPlace() != rejResolver;
+
+        return isDispatched ? (BatchExecutor) exec : null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void runInPlace()
+    {
+        if (!isCancelled())
+            runSettled(execAndSettle(fulResolver.inPlace(), rejResolver.inPlace()));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setAlwaysPending()
+    {
+        for (ChainStage<?, ?> stage = this; stage != null; )
+            stage = stage.settleAlwaysPending();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setFulfilled(final Object value)
+    {
+        if (fulResolver.isDeferred())
+            srcStore().execute(this);
+        else
+            runSettled(execAndSettle());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setRejected(final Object reason, final Throwable exception)
+    {
+        if (rejResolver.isDeferred())
+            srcStore().execute(this);
+        else
+            runSettled(execAndSettle());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void run()
+    {
+        runSettled(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,67 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+//---------------------------------------------------------------------------------------------------------------------
+abstract class ConstantPromises<P>
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int INT_LOW = -128;
+    private static final int INT_HIGH = 127;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int NULL_INDEX = 0;
+    private static final int TRUE_INDEX = 1;
+    private static final int FALSE_INDEX = 2;
+    private static final int EMPTY_STRING_INDEX = 3;
+    private static final int INT_BASE_INDEX = 4 - INT_LOW;
+    private static final int SIZE = INT_BASE_INDEX + INT_HIGH + 1;
+    //-----------------------------------------------------------------------------------------------------------------
+    private final Object[] fulfilledPromises = new Object[SIZE];
+    //-----------------------------------------------------------------------------------------------------------------
+    private static int indexOf(final Object value)
+    {
+        if (value == null)
+            return NULL_INDEX;
+
+        if (value == Boolean.TRUE)
+            return TRUE_INDEX;
+
+        if (value == Boolean.FALSE)
+            return FALSE_INDEX;
+
+        if (value == "")
+            return EMPTY_STRING_INDEX;
+
+        if (value instanceof Integer) {
+            final int intValue = (Integer) value;
+
+            if (intValue >= INT_LOW && intValue <= INT_HIGH && value == Integer.valueOf(intValue))
+                return INT_BASE_INDEX + intValue;
+        }
+
+        return -1;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract P newFulfilledPromise(final Object value);
+    //-----------------------------------------------------------------------------------------------------------------
+    final P fulfilledPromise(final Object value)
+    {
+        final int index = indexOf(value);
+
+        if (index < 0)
+            return newFulfilledPromise(value);
+
+        final Object cached = fulfilledPromises[index];
+
+        if (cached != null)
+            return ImplUtil.cast(cached);
+
+        final P promise = newFulfilledPromise(value);
+        fulfilledPromises[index] = promise;
+        return promise;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,62 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.PromiseTimeoutException;
+import java.util.concurrent.TimeUnit;
+//---------------------------------------------------------------------------------------------------------------------
+final class DeadlineStore extends HashedWheelTimer.Timeout
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Link extends DetachableAction
+    {
+        private final DeadlineStore deadline;
+
+        Link(final DeadlineStore deadline) { this.deadline = deadline; }
+
+        @Override void fulfilled(final Object value) {
+            if (deadline.cancel())
+                deadline.setFulfilled(value);
+        }
+
+        @Override void rejected(final Object reason, final Throwable exception) {
+            if (deadline.cancel())
+                deadline.setRejected(reason, exception);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final Link link = new Link(this);
+    //-----------------------------------------------------------------------------------------------------------------
+    private DeadlineStore(final long deadline)
+    {
+        super(deadline, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static DeadlineStore of(final Object promise, final long timeout, final TimeUnit unit)
+    {
+        final HashedWheelTimer timer = HashedWheelTimer.instance;
+        final DeadlineStore store = new DeadlineStore(timer.deadlineAfter(timeout, unit));
+
+        try {
+            store.link.subscribe(promise);
+        } catch (final Throwable e) {
+            store.link.setRejected(null, e);
+        }
+
+        if (store.isWaiting())
+            timer.schedule(store);
+
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    final void expire(final Object payload)
+    {
+        link.detach();
+        setRejected(null, new PromiseTimeoutException());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,83 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+abstract class DetachableAction implements ResolveAction
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<DetachableAction>
+    settledUpdater = AtomicIntegerFieldUpdater.newUpdater(DetachableAction.class, "settled");
+    //-----------------------------------------------------------------------------------------------------------------
+    private volatile int settled = 0;
+    private volatile PromiseStore source = null;
+    private volatile ActionChunk chunk = null;
+    private int slot = 0;
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract void fulfilled(final Object value);
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract void rejected(final Object reason, final Throwable exception);
+    //-----------------------------------------------------------------------------------------------------------------
+    final void subscribe(final Object promise)
+    {
+        if (promise instanceof BasePromiseImpl) {
+            final PromiseStore store = ((BasePromiseImpl) promise).mutableStore();
+
+            if (store != null) {
+                source = store;
+                store.subscribe(this);
+                return;
+            }
+        }
+
+        BaseResolver.resolveValue(promise, this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void locate(final ActionChunk chunk, final int slot)
+    {
+        this.slot = slot;
+        this.chunk = chunk;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void detach()
+    {
+        settled = 1;
+
+        final PromiseStore source = this.source;
+
+        if (source != null) {
+            this.source = null;
+
+            final ActionChunk chunk = this.chunk;
+
+            if (chunk != null)
+                chunk.removeAt(slot, this);
+            else
+                source.removeAction(this);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setAlwaysPending()
+    {
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setFulfilled(final Object value)
+    {
+        if (settledUpdater.compareAndSet(this, 0, 1))
+            fulfilled(value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setRejected(final Object reason, final Throwable exception)
+    {
+        if (settledUpdater.compareAndSet(this, 0, 1))
+            rejected(reason, exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,67 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.BatchExecutor;
+import java.util.ArrayList;
+//---------------------------------------------------------------------------------------------------------------------
+final class DispatchBatch
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private final BatchExecutor exec;
+    private final DispatchBatch next;
+    private ArrayList<ChainStage<?, ?>> stages = new ArrayList<ChainStage<?, ?>>();
+    //-----------------------------------------------------------------------------------------------------------------
+    private DispatchBatch(final BatchExecutor exec, final DispatchBatch next)
+    {
+        this.exec = exec;
+        this.next = next;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static DispatchBatch add(final DispatchBatch batches, final BatchExecutor exec, final ChainStage<?, ?> stage)
+    {
+        DispatchBatch batch = batches;
+
+        while (batch != null && batch.exec != exec)
+            batch = batch.next;
+
+        final DispatchBatch head;
+
+        if (batch != null)
+            head = batches;
+        else
+            head = batch = new DispatchBatch(exec, batches);
+
+        batch.stages.add(stage);
+
+        if (batch.stages.size() >= exec.maxBatchSize())
+            batch.submit();
+
+        return head;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static void submitAll(final DispatchBatch batches)
+    {
+        for (DispatchBatch batch = batches; batch != null; batch = batch.next)
+            batch.submit();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void submit()
+    {
+        final ArrayList<ChainStage<?, ?>> stages = this.stages;
+
+        if (stages.isEmpty())
+            return;
+
+        this.stages = new ArrayList<ChainStage<?, ?>>();
+
+        exec.execute(new Runnable() { @Override public void run() {
+            for (final ChainStage<?, ?> stage : stages)
+                stage.runInPlace();
+        }});
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,132 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.lw.OnFul;
+import promises.lw.OnRej;
+import promises.lw.RV;
+import promises.lw.RejP;
+import promises.lw.ResP;
+import promises.typed.Resolution;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+abstract class ForeignAdoption
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<ForeignAdoption>
+    settledUpdater = AtomicIntegerFieldUpdater.newUpdater(ForeignAdoption.class, "settled");
+    //-----------------------------------------------------------------------------------------------------------------
+    private final ResolveAction action;
+    private volatile int settled = 0;
+    //-----------------------------------------------------------------------------------------------------------------
+    ForeignAdoption(final ResolveAction action)
+    {
+        this.action = action;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean settle()
+    {
+        return settled == 0 && settledUpdater.compareAndSet(this, 0, 1);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void fulfillOnce(final Object value)
+    {
+        if (settle())
+            action.setFulfilled(value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void rejectOnce(final Object reason, final Throwable exception)
+    {
+        if (settle())
+            action.setRejected(reason, exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void adoptOnce(final Object value)
+    {
+        if (settle())
+            BaseResolver.resolveValue(value, action);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static final class OfUntypedPromise extends ForeignAdoption
+        implements promises.OnFulfilled<Object>, promises.OnRejected<Object>
+    {
+        OfUntypedPromise(final ResolveAction action) { super(action); }
+
+        @Override public Object call(final Object value) {
+            fulfillOnce(value);
+            return UntypedPromiseImpl.factory.alwaysPendingPromise();
+        }
+
+        @Override public Object call(final Object reason, final Throwable exception) {
+            rejectOnce(reason, exception);
+            return UntypedPromiseImpl.factory.alwaysPendingPromise();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static final class OfTypedPromise extends ForeignAdoption
+        implements promises.typed.OnFulfilled<Object, Object, Object>, promises.typed.OnRejected<Object, Object, Object>
+    {
+        OfTypedPromise(final ResolveAction action) { super(action); }
+
+        @Override public Resolution<?, ?> call(final Object value) {
+            fulfillOnce(value);
+            return TypedPromiseImpl.factory().alwaysPendingPromise();
+        }
+
+        @Override public Resolution<?, ?> call(final Object reason, final Throwable exception) {
+            rejectOnce(reason, exception);
+            return TypedPromiseImpl.factory().alwaysPendingPromise();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static final class OfLightWeightPromise extends ForeignAdoption implements OnFul<Object, Object>
+    {
+        final OnRej<Object> onRejected = new OnRej<Object>() { @Override public RV<?> call(final Throwable exception) {
+            rejectOnce(null, exception);
+            return LightWeightPromiseImpl.factory().alwaysPendingPromise();
+        }};
+
+        OfLightWeightPromise(final ResolveAction action) { super(action); }
+
+        @Override public RV<?> call(final Object value) {
+            fulfillOnce(value);
+            return LightWeightPromiseImpl.factory().alwaysPendingPromise();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static final class OfUntypedThenable extends ForeignAdoption
+        implements promises.ResolvePromise, promises.RejectPromise
+    {
+        OfUntypedThenable(final ResolveAction action) { super(action); }
+
+        @Override public void resolve(final Object value) { adoptOnce(value); }
+        @Override public void reject(final Object reason, final Throwable exception) { rejectOnce(reason, exception); }
+        @Override public void reject(final Object reason) { rejectOnce(reason, null); }
+        @Override public void reject(final Throwable exception) { rejectOnce(null, exception); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static final class OfTypedThenable extends ForeignAdoption
+        implements promises.typed.ResolvePromise<Object, Object>, promises.typed.RejectPromise<Object>
+    {
+        OfTypedThenable(final ResolveAction action) { super(action); }
+
+        @Override public void resolve(final Resolution<?, ?> res) { adoptOnce(res); }
+        @Override public void resolve(final Object value) { fulfillOnce(value); }
+        @Override public void reject(final Object reason, final Throwable exception) { rejectOnce(reason, exception); }
+        @Override public void reject(final Object reason) { rejectOnce(reason, null); }
+        @Override public void reject(final Throwable exception) { rejectOnce(null, exception); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static final class OfLightWeightThenable extends ForeignAdoption implements ResP<Object>, RejP
+    {
+        OfLightWeightThenable(final ResolveAction action) { super(action); }
+
+        @Override public void resolve(final RV<?> res) { adoptOnce(res); }
+        @Override public void resolve(final Object value) { fulfillOnce(value); }
+        @Override public void reject(final Throwable exception) { rejectOnce(null, exception); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -5,6 +5,7 @@
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
 import promises.FR1;
+import promises.InlineExecutor;
 import java.util.concurrent.Executor;
 //---------------------------------------------------------------------------------------------------------------------
 abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
@@ -12,24 +13,24 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
     //-----------------------------------------------------------------------------------------------------------------
     private static final FulfilledResolver<Object, Object>
     byNullOnFulfilled = new FulfilledResolver<Object, Object>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object value,
             final Executor exec,
             final Object onFulfilled,
             final int onFulStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            resAction.setFulfilled(store.value);
+            return dstStage.settleFulfilled(value);
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
             final Object onFulfilled,
             final int onFulStackDiff
         ) {
-            return factory.fulfilledPromise(store.value);
+            return store.createPromise(factory);
         }
 
         @Override <PO> PO delayedChainDstPromise(
@@ -41,7 +42,7 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final Object onRejected,
             final int onRejStackDiff
         ) {
-            return factory.fulfilledPromise(store.value);
+            return store.createPromise(factory);
         }
 
         @Override <PO> PO chainDstPromise(
@@ -57,17 +58,19 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
     //-----------------------------------------------------------------------------------------------------------------
     private static final FulfilledResolver<FR1<Object, ?>, Object>
     byNullExecutor = new FulfilledResolver<FR1<Object, ?>, Object>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override boolean isDeferred() { return true; }
+
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object value,
             final Executor exec,
             final FR1<Object, ?> onFulfilled,
             final int onFulStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            doExecAndResolve(store, onFulfilled, onFulStackDiff, store.value, resAction);
+            return doSettle(onFulfilled, onFulStackDiff, value, dstStage);
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
@@ -86,9 +89,7 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final Object onRejected,
             final int onRejStackDiff
         ) {
-            final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
-            doResolve(onFulfilled, onFulStackDiff, store.value, chain);
-            return chain.dstPromise();
+            return doChain(factory, onFulfilled, onFulStackDiff, store.value);
         }
 
         @Override <PO> PO chainDstPromise(
@@ -98,32 +99,33 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final int onFulStackDiff,
             final Object value
         ) {
-            final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
-            doResolve(onFulfilled, onFulStackDiff, value, chain);
-            return chain.dstPromise();
+            return doChain(factory, onFulfilled, onFulStackDiff, value);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
     private static final FulfilledResolver<FR1<Object, ?>, Object>
     byNonNull = new FulfilledResolver<FR1<Object, ?>, Object>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override FulfilledResolver<FR1<Object, ?>, Object> inPlace() { return byNullExecutor; }
+
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object value,
             final Executor exec,
             final FR1<Object, ?> onFulfilled,
             final int onFulStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            doExecAndResolve(exec, onFulfilled, onFulStackDiff, store.value, resAction);
+            doExecAndResolve(exec, onFulfilled, onFulStackDiff, value, dstStage.dstStore());
+            return null;
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
             final FR1<Object, ?> onFulfilled,
             final int onFulStackDiff
         ) {
-            return store.inSyncNewMutablePromise(factory, exec, this, onFulfilled, onFulStackDiff, null, null, 0);
+            return store.newChainDstPromise(factory, exec, this, onFulfilled, onFulStackDiff, null, null, 0);
         }
 
         @Override <PO> PO delayedChainDstPromise(
@@ -160,12 +162,46 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
         final ResolveAction resAction
     ) {
         try {
-            resolveValue(onFulfilled.call(value), resAction);
+            resolveValue(MultiValue.callOnFulfilled(onFulfilled, value), resAction);
         } catch (final Throwable e) {
             resAction.setRejected(null, e);
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
+    private static ChainStage<?, ?> doSettle(
+        final FR1<Object, ?> onFulfilled,
+        final int onFulStackDiff,
+        final Object value,
+        final ChainStage<?, ?> dstStage
+    ) {
+        final Object result;
+
+        try {
+            result = MultiValue.callOnFulfilled(onFulfilled, value);
+        } catch (final Throwable e) {
+            return dstStage.settleRejected(null, e);
+        }
+
+        return settleValue(result, dstStage);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static <PO> PO doChain(
+        final PromiseFactory<PO> factory,
+        final FR1<Object, ?> onFulfilled,
+        final int onFulStackDiff,
+        final Object value
+    ) {
+        final Object result;
+
+        try {
+            result = MultiValue.callOnFulfilled(onFulfilled, value);
+        } catch (final Throwable e) {
+            return factory.rejectedPromise(null, e);
+        }
+
+        return resolvedDstPromise(factory, result);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     private static void doExecAndResolve(
         final Executor exec,
         final FR1<Object, ?> onFulfilled,
@@ -173,8 +209,23 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
         final Object value,
         final ResolveAction resAction
     ) {
+        if (exec instanceof InlineExecutor) {
+            final Trampoline trampoline = Trampoline.enterInline((InlineExecutor) exec);
+
+            if (trampoline != null) {
+                try {
+                    doResolve(onFulfilled, onFulStackDiff, value, resAction);
+                } finally {
+                    trampoline.exitInline();
+                }
+
+                return;
+            }
+        }
+
         exec.execute(new Runnable() { @Override public void run() {
-            doResolve(onFulfilled, onFulStackDiff, value, resAction);
+            if (!isCancelled(resAction))
+                doResolve(onFulfilled, onFulStackDiff, value, resAction);
         }});
     }
     //-----------------------------------------------------------------------------------------------------------------
@@ -189,15 +240,20 @@ abstract class FulfilledResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             return ImplUtil.cast(byNonNull);
     }
     //-----------------------------------------------------------------------------------------------------------------
-    abstract void execAndResolve(
-        final PromiseStore store,
+    FulfilledResolver<VCI, RCI> inPlace()
+    {
+        return this;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract ChainStage<?, ?> execAndSettle(
+        final Object value,
         final Executor exec,
         final VCI onFulfilled,
         final int onFulStackDiff,
-        final ResolveAction resAction
+        final ChainStage<?, ?> dstStage
     );
     //-----------------------------------------------------------------------------------------------------------------
-    abstract <PO> PO inSyncNonBlockingChainDstPromise(
+    abstract <PO> PO drainingChainDstPromise(
         final PromiseStore store,
         final PromiseFactory<PO> factory,
         final Executor exec,
@@ -0,0 +1,285 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.InternalException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+//---------------------------------------------------------------------------------------------------------------------
+final class HashedWheelTimer implements Runnable
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long NEVER = Long.MAX_VALUE;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int WAITING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<HashedWheelTimer, Timeout>
+    pendingUpdater = AtomicReferenceFieldUpdater.newUpdater(HashedWheelTimer.class, Timeout.class, "pending");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<HashedWheelTimer, Timeout>
+    cancelledUpdater = AtomicReferenceFieldUpdater.newUpdater(HashedWheelTimer.class, Timeout.class, "cancelled");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<HashedWheelTimer>
+    startedUpdater = AtomicIntegerFieldUpdater.newUpdater(HashedWheelTimer.class, "started");
+    //-----------------------------------------------------------------------------------------------------------------
+    static final HashedWheelTimer instance = new HashedWheelTimer();
+    //-----------------------------------------------------------------------------------------------------------------
+    static class Timeout extends PromiseStore
+    {
+        private static final AtomicIntegerFieldUpdater<Timeout>
+        stateUpdater = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "timerState");
+
+        private final long deadline;
+        private Object payload;
+        private volatile int timerState = WAITING;
+        private volatile boolean scheduled = false;
+        private long rounds = 0;
+        private int bucket = -1;
+        private Timeout prev = null;
+        private Timeout next = null;
+        private Timeout nextQueued = null;
+        private Timeout nextCancelled = null;
+
+        Timeout(final long deadline, final Object payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        final boolean isWaiting() {
+            return timerState == WAITING;
+        }
+
+        final boolean cancel() {
+            if (!stateUpdater.compareAndSet(this, WAITING, CANCELLED))
+                return false;
+
+            payload = null;
+
+            if (scheduled)
+                instance.pushCancelled(this);
+
+            return true;
+        }
+
+        void expire(final Object payload) {
+            setFulfilled(payload);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final Timeout[] wheel = new Timeout[WHEEL_SIZE];
+    private final long startTime = System.nanoTime();
+    private volatile Timeout pending = null;
+    private volatile Timeout cancelled = null;
+    private volatile int started = 0;
+    private volatile Thread parkedTicker = null;
+    private long tick = 0;
+    private int size = 0;
+    //-----------------------------------------------------------------------------------------------------------------
+    private HashedWheelTimer() {}
+    //-----------------------------------------------------------------------------------------------------------------
+    final long deadlineAfter(final long delay, final TimeUnit unit)
+    {
+        final long now = System.nanoTime() - startTime;
+        final long nanos = Math.max(unit.toNanos(delay), 0);
+
+        return nanos > NEVER - now ? NEVER : now + nanos;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final Timeout schedule(final Timeout timeout)
+    {
+        if (timeout.deadline == NEVER)
+            return timeout;
+
+        timeout.scheduled = true;
+
+        for (;;) {
+            final Timeout head = pending;
+            timeout.nextQueued = head;
+
+            if (pendingUpdater.compareAndSet(this, head, timeout))
+                break;
+        }
+
+        if (started == 0 && startedUpdater.compareAndSet(this, 0, 1)) {
+            final Thread ticker = new Thread(this, "promises-timer");
+            ticker.setDaemon(true);
+            ticker.start();
+        } else {
+            final Thread ticker = parkedTicker;
+
+            if (ticker != null)
+                LockSupport.unpark(ticker);
+        }
+
+        return timeout;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void pushCancelled(final Timeout timeout)
+    {
+        for (;;) {
+            final Timeout head = cancelled;
+            timeout.nextCancelled = head;
+
+            if (cancelledUpdater.compareAndSet(this, head, timeout))
+                break;
+        }
+
+        final Thread ticker = parkedTicker;
+
+        if (ticker != null)
+            LockSupport.unpark(ticker);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void link(final Timeout timeout)
+    {
+        final long expiryTick = timeout.deadline / TICK_NANOS;
+        final int index = (int) (Math.max(expiryTick, tick) & WHEEL_MASK);
+        final Timeout head = wheel[index];
+
+        timeout.rounds = Math.max((expiryTick - tick) / WHEEL_SIZE, 0);
+        timeout.bucket = index;
+        timeout.prev = null;
+        timeout.next = head;
+
+        if (head != null)
+            head.prev = timeout;
+
+        wheel[index] = timeout;
+        size++;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void unlink(final Timeout timeout)
+    {
+        final Timeout prev = timeout.prev;
+        final Timeout next = timeout.next;
+
+        if (prev != null)
+            prev.next = next;
+        else
+            wheel[timeout.bucket] = next;
+
+        if (next != null)
+            next.prev = prev;
+
+        timeout.bucket = -1;
+        timeout.prev = null;
+        timeout.next = null;
+        size--;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void transferQueued()
+    {
+        Timeout timeout = pendingUpdater.getAndSet(this, null);
+
+        while (timeout != null) {
+            final Timeout next = timeout.nextQueued;
+            timeout.nextQueued = null;
+
+            if (timeout.timerState == WAITING)
+                link(timeout);
+
+            timeout = next;
+        }
+
+        timeout = cancelledUpdater.getAndSet(this, null);
+
+        while (timeout != null) {
+            final Timeout next = timeout.nextCancelled;
+            timeout.nextCancelled = null;
+
+            if (timeout.bucket >= 0)
+                unlink(timeout);
+
+            timeout = next;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void expireBucket()
+    {
+        Timeout expired = null;
+        Timeout timeout = wheel[(int) (tick & WHEEL_MASK)];
+
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+            } else {
+                unlink(timeout);
+
+                if (Timeout.stateUpdater.compareAndSet(timeout, WAITING, EXPIRED)) {
+                    timeout.nextQueued = expired;
+                    expired = timeout;
+                }
+            }
+
+            timeout = next;
+        }
+
+        while (expired != null) {
+            final Timeout next = expired.nextQueued;
+            final Object payload = expired.payload;
+
+            expired.nextQueued = null;
+            expired.payload = null;
+
+            try {
+                expired.expire(payload);
+            } catch (final InternalException e) {
+                LoggerManager.singleton().registeredInternalExceptionHandler().onCaught(e);
+            } catch (final Throwable e) {
+                // callbacks are already guarded by their resolvers; keep the ticker alive regardless
+            }
+
+            expired = next;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void waitForTick()
+    {
+        final long tickTime = startTime + (tick + 1) * TICK_NANOS;
+
+        for (long now = System.nanoTime(); now - tickTime < 0; now = System.nanoTime())
+            LockSupport.parkNanos(this, tickTime - now);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void waitForSchedule()
+    {
+        parkedTicker = Thread.currentThread();
+
+        while (pending == null && cancelled == null)
+            LockSupport.park(this);
+
+        parkedTicker = null;
+        tick = Math.max(tick, (System.nanoTime() - startTime) / TICK_NANOS);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void run()
+    {
+        for (;;) {
+            transferQueued();
+
+            if (size == 0) {
+                waitForSchedule();
+                continue;
+            }
+
+            waitForTick();
+            transferQueued();
+            expireBucket();
+            tick++;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
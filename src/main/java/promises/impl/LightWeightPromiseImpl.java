@@ -16,24 +16,104 @@ import java.util.concurrent.TimeoutException;
 public abstract class LightWeightPromiseImpl<V> extends BasePromiseImpl implements P<V>
 {
     //-----------------------------------------------------------------------------------------------------------------
-    private static final LightWeightPromiseImpl<Object> originPromise = new LightWeightPromiseImpl<Object>() {
-        @Override String type() { return "LW-ORIGIN"; }
-        @Override public PromiseState state() { return PromiseState.FULFILLED; }
-        @Override public Object value() { return null; }
-        @Override public Throwable exception() { return null; }
-        @Override public Object await() { return null; }
-        @Override public Object await(final long timeout, final TimeUnit unit) { return null; }
+    private static final String[] types = {
+        "LW-ORIGIN", "LW-FULFILLED", "LW-REJECTED", "LW-ALWAYS-PENDING", "LW-MUTABLE"
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Core extends LightWeightPromiseImpl<Object>
+    {
+        private final int kind;
+        private final Object value;
+        private final Throwable exception;
+        private final Object store;
+
+        Core(final int kind, final Object value, final Throwable exception, final Object store) {
+            this.kind = kind;
+            this.value = value;
+            this.exception = exception;
+            this.store = store;
+        }
+
+        private PromiseStore store() {
+            return store instanceof ChainStage ? ((ChainStage<?, ?>) store).dstStore() : (PromiseStore) store;
+        }
+
+        @Override String type() { return types[kind]; }
+        @Override PromiseStore mutableStore() { return store(); }
+
+        @Override public PromiseState state() {
+            switch (kind) {
+            case MUTABLE:        return store().state();
+            case REJECTED:       return PromiseState.REJECTED;
+            case ALWAYS_PENDING: return PromiseState.PENDING;
+            default:             return PromiseState.FULFILLED;
+            }
+        }
+
+        @Override public Object value() { return MultiValue.materialize(kind == MUTABLE ? store().value : value); }
+        @Override public Throwable exception() { return kind == MUTABLE ? store().exception : exception; }
+
+        @Override public Object await() throws PromiseRejectedException, InterruptedException {
+            switch (kind) {
+            case MUTABLE:        return store().await(this);
+            case REJECTED:       throw rejectedException(null, exception);
+            case ALWAYS_PENDING: return ImplUtil.waitForever();
+            default:             return MultiValue.materialize(value);
+            }
+        }
+
+        @Override public Object await(final long timeout, final TimeUnit unit)
+            throws PromiseRejectedException, InterruptedException, TimeoutException
+        {
+            switch (kind) {
+            case MUTABLE:        return store().await(this, timeout, unit);
+            case REJECTED:       throw rejectedException(null, exception);
+            case ALWAYS_PENDING: return ImplUtil.waitTimeout(timeout, unit);
+            default:             return MultiValue.materialize(value);
+            }
+        }
+
+        private <PO> PO convert(final PromiseFactory<PO> factory) {
+            switch (kind) {
+            case MUTABLE:        return store().createPromise(factory);
+            case ORIGIN:         return factory.originPromise();
+            case ALWAYS_PENDING: return factory.alwaysPendingPromise();
+            default:             return resolvedView(factory);
+            }
+        }
 
         @Override public UntypedPromiseImpl toUntypedPromise() {
-            return UntypedPromiseImpl.factory.originPromise();
+            return convert(UntypedPromiseImpl.factory);
         }
 
         @Override public <R> TypedPromiseImpl<Object, R> toTypedPromise() {
-            return TypedPromiseImpl.<Object, R>factory().originPromise();
+            return convert(TypedPromiseImpl.<Object, R>factory());
+        }
+
+        @Override <PO> PO resolvedPromise(final PromiseFactory<PO> factory) {
+            switch (kind) {
+            case MUTABLE:        return null;
+            case REJECTED:       return factory.rejectedPromise(null, exception);
+            case ALWAYS_PENDING: return factory.alwaysPendingPromise();
+            default:             return factory.fulfilledPromise(value);
+            }
         }
 
         @Override void applyResolveAction(final ResolveAction resAction) {
-            resAction.setFulfilled(null);
+            switch (kind) {
+            case MUTABLE:        store().applyResolveAction(resAction); return;
+            case REJECTED:       resAction.setRejected(null, exception); return;
+            case ALWAYS_PENDING: resAction.setAlwaysPending(); return;
+            default:             resAction.setFulfilled(value);
+            }
+        }
+
+        @Override ChainStage<?, ?> settleInto(final ChainStage<?, ?> dstStage) {
+            switch (kind) {
+            case FULFILLED: return dstStage.settleFulfilled(value);
+            case REJECTED:  return dstStage.settleRejected(null, exception);
+            default:        applyResolveAction(dstStage.dstStore()); return null;
+            }
         }
 
         @Override <VO> LightWeightPromiseImpl<VO> doThen(
@@ -41,8 +121,50 @@ public abstract class LightWeightPromiseImpl<V> extends BasePromiseImpl implemen
             final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
             final FR1<Throwable, ? extends RV<? extends VO>> onRejected
         ) {
-            return FulfilledResolver.of(exec, onFulfilled)
-                .chainDstPromise(LightWeightPromiseImpl.<VO>factory(), exec, onFulfilled, 0, null);
+            switch (kind) {
+            case MUTABLE:
+                if (store instanceof ChainStage)
+                    return ((ChainStage<?, ?>) store).doThen(
+                        LightWeightPromiseImpl.<VO>factory(), exec,
+                        FulfilledResolver.<Object, FR1<Throwable, ?>>of(exec, onFulfilled), onFulfilled, 0,
+                        RejectedResolver.<FR1<? super Object, ?>>of(exec, onRejected), onRejected, 0
+                    );
+
+                return ((PromiseStore) store).doThen(
+                    LightWeightPromiseImpl.<VO>factory(), exec,
+                    FulfilledResolver.<Object, FR1<Throwable, ?>>of(exec, onFulfilled), onFulfilled, 0,
+                    RejectedResolver.<FR1<? super Object, ?>>of(exec, onRejected), onRejected, 0
+                );
+
+            case REJECTED:
+                if (onRejected == null)
+                    return ImplUtil.cast(this);
+
+                return RejectedResolver.of(exec, onRejected)
+                    .chainDstPromise(LightWeightPromiseImpl.<VO>factory(), exec, onRejected, 0, null, exception);
+
+            case ALWAYS_PENDING:
+                return LightWeightPromiseImpl.<VO>factory().alwaysPendingPromise();
+
+            default:
+                if (kind == FULFILLED && onFulfilled == null)
+                    return ImplUtil.cast(this);
+
+                return FulfilledResolver.of(exec, onFulfilled)
+                    .chainDstPromise(LightWeightPromiseImpl.<VO>factory(), exec, onFulfilled, 0, value);
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final LightWeightPromiseImpl<Object> originPromise = new Core(ORIGIN, null, null, null);
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final LightWeightPromiseImpl<Object>
+    alwaysPendingPromise = new Core(ALWAYS_PENDING, null, null, null);
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final ConstantPromises<LightWeightPromiseImpl<Object>>
+    constantPromises = new ConstantPromises<LightWeightPromiseImpl<Object>>() {
+        @Override LightWeightPromiseImpl<Object> newFulfilledPromise(final Object value) {
+            return new Core(FULFILLED, value, null, null);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
@@ -51,153 +173,22 @@ public abstract class LightWeightPromiseImpl<V> extends BasePromiseImpl implemen
         @Override public LightWeightPromiseImpl<Object> originPromise() { return originPromise; }
 
         @Override public LightWeightPromiseImpl<Object> fulfilledPromise(final Object value) {
-            return new LightWeightPromiseImpl<Object>() {
-                @Override String type() { return "LW-FULFILLED"; }
-                @Override public PromiseState state() { return PromiseState.FULFILLED; }
-                @Override public Object value() { return value; }
-                @Override public Throwable exception() { return null; }
-                @Override public Object await() { return value; }
-                @Override public Object await(final long timeout, final TimeUnit unit) { return value; }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return UntypedPromiseImpl.factory.fulfilledPromise(value);
-                }
-
-                @Override public <R> TypedPromiseImpl<Object, R> toTypedPromise() {
-                    return TypedPromiseImpl.<Object, R>factory().fulfilledPromise(value);
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setFulfilled(value);
-                }
-
-                @Override <VO> LightWeightPromiseImpl<VO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
-                    final FR1<Throwable, ? extends RV<? extends VO>> onRejected
-                ) {
-                    return FulfilledResolver.of(exec, onFulfilled)
-                        .chainDstPromise(LightWeightPromiseImpl.<VO>factory(), exec, onFulfilled, 0, value);
-                }
-            };
+            return constantPromises.fulfilledPromise(value);
         }
 
         @Override public LightWeightPromiseImpl<Object>
         rejectedPromise(final Object reason, final Throwable exception) {
-            return new LightWeightPromiseImpl<Object>() {
-                @Override String type() { return "LW-REJECTED"; }
-                @Override public PromiseState state() { return PromiseState.REJECTED; }
-                @Override public Object value() { return null; }
-                @Override public Throwable exception() { return exception; }
-
-                @Override public Object await() throws PromiseRejectedException {
-                    throw new PromiseRejectedException(this, null, exception);
-                }
-
-                @Override public Object
-                await(final long timeout, final TimeUnit unit) throws PromiseRejectedException {
-                    throw new PromiseRejectedException(this, null, exception);
-                }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return UntypedPromiseImpl.factory.rejectedPromise(null, exception);
-                }
-
-                @Override public <R> TypedPromiseImpl<Object, R> toTypedPromise() {
-                    return TypedPromiseImpl.<Object, R>factory().rejectedPromise(null, exception);
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setRejected(null, exception);
-                }
-
-                @Override <VO> LightWeightPromiseImpl<VO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
-                    final FR1<Throwable, ? extends RV<? extends VO>> onRejected
-                ) {
-                    return RejectedResolver.of(exec, onRejected)
-                        .chainDstPromise(LightWeightPromiseImpl.<VO>factory(), exec, onRejected, 0, null, exception);
-                }
-            };
-        }
-
-        @Override public LightWeightPromiseImpl<Object> alwaysPendingPromise() {
-            return new LightWeightPromiseImpl<Object>() {
-                @Override String type() { return "LW-ALWAYS-PENDING"; }
-                @Override public PromiseState state() { return PromiseState.PENDING; }
-                @Override public Object value() { return null; }
-                @Override public Throwable exception() { return null; }
-                @Override public Object await() throws InterruptedException { return ImplUtil.waitForever(); }
-
-                @Override public Object
-                await(final long timeout, final TimeUnit unit) throws InterruptedException, TimeoutException {
-                    return ImplUtil.waitTimeout(timeout, unit);
-                }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return UntypedPromiseImpl.factory.alwaysPendingPromise();
-                }
-
-                @Override public <R> TypedPromiseImpl<Object, R> toTypedPromise() {
-                    return TypedPromiseImpl.<Object, R>factory().alwaysPendingPromise();
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setAlwaysPending();
-                }
-
-                @Override <VO> LightWeightPromiseImpl<VO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
-                    final FR1<Throwable, ? extends RV<? extends VO>> onRejected
-                ) {
-                    return LightWeightPromiseImpl.<VO>factory().alwaysPendingPromise();
-                }
-            };
+            return new Core(REJECTED, null, exception, null);
         }
 
+        @Override public LightWeightPromiseImpl<Object> alwaysPendingPromise() { return alwaysPendingPromise; }
+
         @Override public LightWeightPromiseImpl<Object> mutablePromise(final PromiseStore store) {
-            return new LightWeightPromiseImpl<Object>() {
-                @Override String type() { return "LW-MUTABLE"; }
-                @Override public PromiseState state() { return store.state; }
-                @Override public Object value() { return store.value; }
-                @Override public Throwable exception() { return store.exception; }
-
-                @Override public Object await() throws PromiseRejectedException, InterruptedException {
-                    return store.await(this);
-                }
-
-                @Override public Object await(final long timeout, final TimeUnit unit)
-                    throws PromiseRejectedException, InterruptedException, TimeoutException
-                {
-                    return store.await(this, timeout, unit);
-                }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return store.createPromise(UntypedPromiseImpl.factory);
-                }
-
-                @Override public <R> TypedPromiseImpl<Object, R> toTypedPromise() {
-                    return store.createPromise(TypedPromiseImpl.<Object, R>factory());
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    store.applyResolveAction(resAction);
-                }
-
-                @Override <VO> LightWeightPromiseImpl<VO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
-                    final FR1<Throwable, ? extends RV<? extends VO>> onRejected
-                ) {
-                    return store.doThen(
-                        LightWeightPromiseImpl.<VO>factory(), exec,
-                        FulfilledResolver.<Object, FR1<Throwable, ?>>of(exec, onFulfilled), onFulfilled, 0,
-                        RejectedResolver.<FR1<? super Object, ?>>of(exec, onRejected), onRejected, 0
-                    );
-                }
-            };
+            return new Core(MUTABLE, null, null, store);
+        }
+
+        @Override LightWeightPromiseImpl<Object> chainedPromise(final ChainStage<?, ?> stage) {
+            return new Core(MUTABLE, null, null, stage);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,140 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.FR1;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+//---------------------------------------------------------------------------------------------------------------------
+final class MapStore extends PromiseStore
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Worker extends ResumableAction
+    {
+        private final MapStore store;
+        private Object input = null;
+        private int index = 0;
+
+        Worker(final MapStore store) { this.store = store; }
+
+        @Override void step() {
+            final Object input = this.input;
+            this.input = null;
+
+            try {
+                BaseResolver.resolveValue(store.mapper.call(input), this);
+            } catch (final Throwable e) {
+                store.rejectOnce(null, e);
+            }
+        }
+
+        @Override public void setAlwaysPending() { }
+        @Override public void setFulfilled(final Object value) { store.fulfillAt(this, value); }
+
+        @Override public void setRejected(final Object reason, final Throwable exception) {
+            store.rejectOnce(reason, exception);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final Iterator<?> inputs;
+    private final Executor exec;
+    private final FR1<Object, ?> mapper;
+    private final ArrayList<Object> results = new ArrayList<Object>();
+    private int active = 0;
+    private boolean exhausted = false;
+    private boolean failed = false;
+    //-----------------------------------------------------------------------------------------------------------------
+    private MapStore(final Iterator<?> inputs, final Executor exec, final FR1<Object, ?> mapper)
+    {
+        this.inputs = inputs;
+        this.exec = exec;
+        this.mapper = mapper;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static MapStore of(final Iterable<?> inputs, final int parallelism, final Executor exec, final FR1<?, ?> mapper)
+    {
+        final MapStore store = new MapStore(inputs.iterator(), exec, ImplUtil.<FR1<Object, ?>>cast(mapper));
+
+        for (int i = Math.max(parallelism, 1); i > 0; i--) {
+            final Worker worker = new Worker(store);
+
+            if (!store.pullNext(worker, true))
+                break;
+
+            worker.dispatch(store.exec);
+        }
+
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean pullNext(final Worker worker, final boolean starting)
+    {
+        final boolean finished;
+        Throwable exception = null;
+
+        synchronized (this) {
+            if (failed)
+                return false;
+
+            try {
+                if (!exhausted && inputs.hasNext()) {
+                    worker.input = inputs.next();
+                    worker.index = results.size();
+                    results.add(null);
+
+                    if (starting)
+                        active++;
+
+                    return true;
+                }
+            } catch (final Throwable e) {
+                failed = true;
+                exception = e;
+            }
+
+            exhausted = true;
+
+            if (starting)
+                finished = results.isEmpty();
+            else
+                finished = --active == 0;
+        }
+
+        if (exception != null)
+            setRejected(null, exception);
+        else if (finished)
+            setFulfilled(results);
+
+        return false;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void fulfillAt(final Worker worker, final Object value)
+    {
+        synchronized (this) {
+            if (failed)
+                return;
+
+            results.set(worker.index, MultiValue.materialize(value));
+        }
+
+        if (pullNext(worker, false))
+            worker.dispatch(exec);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void rejectOnce(final Object reason, final Throwable exception)
+    {
+        synchronized (this) {
+            if (failed)
+                return;
+
+            failed = true;
+        }
+
+        setRejected(reason, exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,115 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.FR2;
+import promises.FR3;
+import promises.FR4;
+import promises.FR5;
+import promises.M2;
+import promises.M3;
+import promises.M4;
+import promises.M5;
+import promises.lw.OnFul;
+import promises.lw.RV;
+import promises.typed.Resolution;
+//---------------------------------------------------------------------------------------------------------------------
+public abstract class MultiCallback
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Untyped extends MultiCallback implements promises.OnFulfilled<Object>
+    {
+        Untyped(final int arity, final Object onFulfilled) { super(arity, onFulfilled); }
+
+        @Override public Object call(final Object v) throws Throwable { return unpack(v); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Typed extends MultiCallback
+        implements promises.typed.OnFulfilled<Object, Object, Object>
+    {
+        Typed(final int arity, final Object onFulfilled) { super(arity, onFulfilled); }
+
+        @Override public Resolution<?, ?> call(final Object v) throws Throwable {
+            return ImplUtil.cast(unpack(v));
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class LightWeight extends MultiCallback implements OnFul<Object, Object>
+    {
+        LightWeight(final int arity, final Object onFulfilled) { super(arity, onFulfilled); }
+
+        @Override public RV<?> call(final Object v) throws Throwable { return ImplUtil.cast(unpack(v)); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final int arity;
+    private final Object onFulfilled;
+    //-----------------------------------------------------------------------------------------------------------------
+    private MultiCallback(final int arity, final Object onFulfilled)
+    {
+        this.arity = arity;
+        this.onFulfilled = onFulfilled;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static <F> F untyped(final int arity, final Object onFulfilled)
+    {
+        return ImplUtil.cast(new Untyped(arity, onFulfilled));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static <F> F typed(final int arity, final Object onFulfilled)
+    {
+        return ImplUtil.cast(new Typed(arity, onFulfilled));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static <F> F lightWeight(final int arity, final Object onFulfilled)
+    {
+        return ImplUtil.cast(new LightWeight(arity, onFulfilled));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private Object invoke(final Object v1, final Object v2, final Object v3, final Object v4, final Object v5)
+        throws Throwable
+    {
+        switch (arity) {
+        case 2:  return ImplUtil.<FR2<Object, Object, ?>>cast(onFulfilled).call(v1, v2);
+        case 3:  return ImplUtil.<FR3<Object, Object, Object, ?>>cast(onFulfilled).call(v1, v2, v3);
+        case 4:  return ImplUtil.<FR4<Object, Object, Object, Object, ?>>cast(onFulfilled).call(v1, v2, v3, v4);
+        default: return ImplUtil.<FR5<Object, Object, Object, Object, Object, ?>>cast(onFulfilled)
+                     .call(v1, v2, v3, v4, v5);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final Object unpack(final Object tuple) throws Throwable
+    {
+        if (tuple == null)
+            return invoke(null, null, null, null, null);
+
+        switch (arity) {
+        case 2:
+            final M2<?, ?> m2 = (M2<?, ?>) tuple;
+            return invoke(m2.v1, m2.v2, null, null, null);
+
+        case 3:
+            final M3<?, ?, ?> m3 = (M3<?, ?, ?>) tuple;
+            return invoke(m3.v1, m3.v2, m3.v3, null, null);
+
+        case 4:
+            final M4<?, ?, ?, ?> m4 = (M4<?, ?, ?, ?>) tuple;
+            return invoke(m4.v1, m4.v2, m4.v3, m4.v4, null);
+
+        default:
+            final M5<?, ?, ?, ?, ?> m5 = (M5<?, ?, ?, ?, ?>) tuple;
+            return invoke(m5.v1, m5.v2, m5.v3, m5.v4, m5.v5);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final Object callInline(final MultiValue value) throws Throwable
+    {
+        if (value.arity != arity)
+            return unpack(value.value());
+
+        return invoke(value.v1, value.v2, value.v3, value.v4, value.v5);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
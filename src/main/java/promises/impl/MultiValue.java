@@ -0,0 +1,122 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.FR1;
+import promises.M2;
+import promises.M3;
+import promises.M4;
+import promises.M5;
+import promises.PromiseState;
+import promises.lw.RV;
+import promises.typed.Resolution;
+//---------------------------------------------------------------------------------------------------------------------
+public final class MultiValue implements Resolution<Object, Object>, RV<Object>
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    final int arity;
+    final Object v1;
+    final Object v2;
+    final Object v3;
+    final Object v4;
+    final Object v5;
+    private Object tuple = null;
+    //-----------------------------------------------------------------------------------------------------------------
+    private MultiValue(
+        final int arity,
+        final Object v1,
+        final Object v2,
+        final Object v3,
+        final Object v4,
+        final Object v5
+    ) {
+        this.arity = arity;
+        this.v1 = v1;
+        this.v2 = v2;
+        this.v3 = v3;
+        this.v4 = v4;
+        this.v5 = v5;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static Object of(final Object v1, final Object v2)
+    {
+        return new MultiValue(2, v1, v2, null, null, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static Object of(final Object v1, final Object v2, final Object v3)
+    {
+        return new MultiValue(3, v1, v2, v3, null, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static Object of(final Object v1, final Object v2, final Object v3, final Object v4)
+    {
+        return new MultiValue(4, v1, v2, v3, v4, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static Object of(final Object v1, final Object v2, final Object v3, final Object v4, final Object v5)
+    {
+        return new MultiValue(5, v1, v2, v3, v4, v5);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static Object materialize(final Object value)
+    {
+        return value instanceof MultiValue ? ((MultiValue) value).value() : value;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static Object callOnFulfilled(final FR1<Object, ?> onFulfilled, final Object value) throws Throwable
+    {
+        if (!(value instanceof MultiValue))
+            return onFulfilled.call(value);
+
+        final MultiValue multi = (MultiValue) value;
+
+        if (onFulfilled instanceof MultiCallback)
+            return ((MultiCallback) onFulfilled).callInline(multi);
+        else
+            return onFulfilled.call(multi.value());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final PromiseState state()
+    {
+        return PromiseState.FULFILLED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final Object value()
+    {
+        final Object tuple = this.tuple;
+
+        if (tuple != null)
+            return tuple;
+
+        switch (arity) {
+        case 2:  return this.tuple = M2.of(v1, v2);
+        case 3:  return this.tuple = M3.of(v1, v2, v3);
+        case 4:  return this.tuple = M4.of(v1, v2, v3, v4);
+        default: return this.tuple = M5.of(v1, v2, v3, v4, v5);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final Object reason()
+    {
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final Throwable exception()
+    {
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final String toString()
+    {
+        return value().toString();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,101 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.TypeErrorException;
+import promises.lw.DoubleFR1;
+import promises.lw.DoubleOnRej;
+import promises.lw.IntFR1;
+import promises.lw.IntOnRej;
+import promises.lw.LongFR1;
+import promises.lw.LongOnRej;
+//---------------------------------------------------------------------------------------------------------------------
+abstract class PrimitiveCodec
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    static final PrimitiveCodec ofInt = new PrimitiveCodec("int") {
+        @Override Object box(final long bits) { return (int) bits; }
+
+        @Override boolean isLossless(final Number value) {
+            return value instanceof Integer || value instanceof Short || value instanceof Byte;
+        }
+
+        @Override long toBits(final Number value) { return value.intValue(); }
+
+        @Override long fulfilled(final Object onFulfilled, final long bits) throws Throwable {
+            return ((IntFR1) onFulfilled).call((int) bits);
+        }
+
+        @Override long rejected(final Object onRejected, final Throwable exception) throws Throwable {
+            return ((IntOnRej) onRejected).call(exception);
+        }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    static final PrimitiveCodec ofLong = new PrimitiveCodec("long") {
+        @Override Object box(final long bits) { return bits; }
+
+        @Override boolean isLossless(final Number value) {
+            return value instanceof Long || ofInt.isLossless(value);
+        }
+
+        @Override long toBits(final Number value) { return value.longValue(); }
+
+        @Override long fulfilled(final Object onFulfilled, final long bits) throws Throwable {
+            return ((LongFR1) onFulfilled).call(bits);
+        }
+
+        @Override long rejected(final Object onRejected, final Throwable exception) throws Throwable {
+            return ((LongOnRej) onRejected).call(exception);
+        }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    static final PrimitiveCodec ofDouble = new PrimitiveCodec("double") {
+        @Override Object box(final long bits) { return Double.longBitsToDouble(bits); }
+
+        @Override boolean isLossless(final Number value) {
+            return value instanceof Double || value instanceof Float || ofInt.isLossless(value);
+        }
+
+        @Override long toBits(final Number value) { return Double.doubleToRawLongBits(value.doubleValue()); }
+
+        @Override long fulfilled(final Object onFulfilled, final long bits) throws Throwable {
+            return Double.doubleToRawLongBits(((DoubleFR1) onFulfilled).call(Double.longBitsToDouble(bits)));
+        }
+
+        @Override long rejected(final Object onRejected, final Throwable exception) throws Throwable {
+            return Double.doubleToRawLongBits(((DoubleOnRej) onRejected).call(exception));
+        }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private final String typeName;
+    //-----------------------------------------------------------------------------------------------------------------
+    private PrimitiveCodec(final String typeName)
+    {
+        this.typeName = typeName;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract Object box(final long bits);
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract boolean isLossless(final Number value);
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract long toBits(final Number value);
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract long fulfilled(final Object onFulfilled, final long bits) throws Throwable;
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract long rejected(final Object onRejected, final Throwable exception) throws Throwable;
+    //-----------------------------------------------------------------------------------------------------------------
+    final long unbox(final Object value) throws TypeErrorException
+    {
+        if (value == null)
+            throw new NullPointerException("Unboxing null as " + typeName);
+
+        if (!(value instanceof Number) || !isLossless((Number) value))
+            throw new TypeErrorException("Cannot widen %s to %s without loss", value.getClass().getName(), typeName);
+
+        return toBits((Number) value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
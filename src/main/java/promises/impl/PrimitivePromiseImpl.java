@@ -0,0 +1,265 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.PromiseRejectedException;
+import promises.PromiseState;
+import promises.lw.DoubleFR1;
+import promises.lw.DoubleOnRej;
+import promises.lw.DoubleP;
+import promises.lw.IntFR1;
+import promises.lw.IntOnRej;
+import promises.lw.IntP;
+import promises.lw.LongFR1;
+import promises.lw.LongOnRej;
+import promises.lw.LongP;
+import promises.lw.P;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+//---------------------------------------------------------------------------------------------------------------------
+public abstract class PrimitivePromiseImpl
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    final PrimitiveStore store;
+    //-----------------------------------------------------------------------------------------------------------------
+    private PrimitivePromiseImpl(final PrimitiveStore store)
+    {
+        this.store = store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static IntP intPromise(final int value)
+    {
+        return new OfInt(new PrimitiveStore(value));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static LongP longPromise(final long value)
+    {
+        return new OfLong(new PrimitiveStore(value));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static DoubleP doublePromise(final double value)
+    {
+        return new OfDouble(new PrimitiveStore(Double.doubleToRawLongBits(value)));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static IntP unboxedInt(final P<? extends Number> promise)
+    {
+        return new OfInt(PrimitiveStore.unbox(promise, PrimitiveCodec.ofInt));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static LongP unboxedLong(final P<? extends Number> promise)
+    {
+        return new OfLong(PrimitiveStore.unbox(promise, PrimitiveCodec.ofLong));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static DoubleP unboxedDouble(final P<? extends Number> promise)
+    {
+        return new OfDouble(PrimitiveStore.unbox(promise, PrimitiveCodec.ofDouble));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final PromiseState state()
+    {
+        return store.state();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final Throwable exception()
+    {
+        return store.state() == PromiseState.REJECTED ? store.exception : null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final long bits()
+    {
+        return store.isFulfilled() ? store.bits : 0L;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final PrimitiveStore chain(
+        final Executor exec,
+        final PrimitiveCodec codec,
+        final Object onFulfilled,
+        final Object onRejected
+    ) {
+        return PrimitiveStage.chain(store, exec, codec, onFulfilled, onRejected);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class OfInt extends PrimitivePromiseImpl implements IntP
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        OfInt(final PrimitiveStore store)
+        {
+            super(store);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final int value()
+        {
+            return (int) bits();
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final int await() throws PromiseRejectedException, InterruptedException
+        {
+            return (int) store.awaitBits(this);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final int await(final long timeout, final TimeUnit unit)
+            throws PromiseRejectedException, InterruptedException, TimeoutException
+        {
+            return (int) store.awaitBits(this, timeout, unit);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final P<Integer> toP()
+        {
+            return store.box(PrimitiveCodec.ofInt);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final IntP then(final Executor exec, final IntFR1 onFulfilled, final IntOnRej onRejected)
+        {
+            return new OfInt(chain(exec, PrimitiveCodec.ofInt, onFulfilled, onRejected));
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final IntP then(final IntFR1 onFulfilled, final IntOnRej onRejected)
+        {
+            return then(null, onFulfilled, onRejected);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final IntP then(final Executor exec, final IntFR1 onFulfilled)
+        {
+            return then(exec, onFulfilled, null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final IntP then(final IntFR1 onFulfilled)
+        {
+            return then(null, onFulfilled, null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class OfLong extends PrimitivePromiseImpl implements LongP
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        OfLong(final PrimitiveStore store)
+        {
+            super(store);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final long value()
+        {
+            return bits();
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final long await() throws PromiseRejectedException, InterruptedException
+        {
+            return store.awaitBits(this);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final long await(final long timeout, final TimeUnit unit)
+            throws PromiseRejectedException, InterruptedException, TimeoutException
+        {
+            return store.awaitBits(this, timeout, unit);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final P<Long> toP()
+        {
+            return store.box(PrimitiveCodec.ofLong);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final LongP then(final Executor exec, final LongFR1 onFulfilled, final LongOnRej onRejected)
+        {
+            return new OfLong(chain(exec, PrimitiveCodec.ofLong, onFulfilled, onRejected));
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final LongP then(final LongFR1 onFulfilled, final LongOnRej onRejected)
+        {
+            return then(null, onFulfilled, onRejected);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final LongP then(final Executor exec, final LongFR1 onFulfilled)
+        {
+            return then(exec, onFulfilled, null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final LongP then(final LongFR1 onFulfilled)
+        {
+            return then(null, onFulfilled, null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class OfDouble extends PrimitivePromiseImpl implements DoubleP
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        OfDouble(final PrimitiveStore store)
+        {
+            super(store);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final double value()
+        {
+            return Double.longBitsToDouble(bits());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final double await() throws PromiseRejectedException, InterruptedException
+        {
+            return Double.longBitsToDouble(store.awaitBits(this));
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final double await(final long timeout, final TimeUnit unit)
+            throws PromiseRejectedException, InterruptedException, TimeoutException
+        {
+            return Double.longBitsToDouble(store.awaitBits(this, timeout, unit));
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final P<Double> toP()
+        {
+            return store.box(PrimitiveCodec.ofDouble);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final DoubleP then(final Executor exec, final DoubleFR1 onFulfilled, final DoubleOnRej onRejected)
+        {
+            return new OfDouble(chain(exec, PrimitiveCodec.ofDouble, onFulfilled, onRejected));
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final DoubleP then(final DoubleFR1 onFulfilled, final DoubleOnRej onRejected)
+        {
+            return then(null, onFulfilled, onRejected);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final DoubleP then(final Executor exec, final DoubleFR1 onFulfilled)
+        {
+            return then(exec, onFulfilled, null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Override
+        public final DoubleP then(final DoubleFR1 onFulfilled)
+        {
+            return then(null, onFulfilled, null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,168 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.InlineExecutor;
+import promises.PromiseState;
+import java.util.concurrent.Executor;
+//---------------------------------------------------------------------------------------------------------------------
+final class PrimitiveStage implements ResolveAction, Runnable
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private final PrimitiveStore srcStore;
+    private final Executor exec;
+    private final PrimitiveCodec codec;
+    private final Object onFulfilled;
+    private final Object onRejected;
+    private final PrimitiveStore dstStore = new PrimitiveStore();
+    //-----------------------------------------------------------------------------------------------------------------
+    private PrimitiveStage(
+        final PrimitiveStore srcStore,
+        final Executor exec,
+        final PrimitiveCodec codec,
+        final Object onFulfilled,
+        final Object onRejected
+    ) {
+        this.srcStore = srcStore;
+        this.exec = exec;
+        this.codec = codec;
+        this.onFulfilled = onFulfilled;
+        this.onRejected = onRejected;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PrimitiveStore chain(
+        final PrimitiveStore srcStore,
+        final Executor exec,
+        final PrimitiveCodec codec,
+        final Object onFulfilled,
+        final Object onRejected
+    ) {
+        final PromiseState state = srcStore.state();
+
+        if (state == PromiseState.PENDING || exec != null)
+            return new PrimitiveStage(srcStore, exec, codec, onFulfilled, onRejected).start();
+
+        final boolean isFulfilled = state == PromiseState.FULFILLED;
+        final Object callback = isFulfilled ? onFulfilled : onRejected;
+
+        if (callback == null)
+            return srcStore;
+
+        final long bits;
+
+        try {
+            bits = call(srcStore, codec, callback);
+        } catch (final Throwable e) {
+            return PrimitiveStore.rejected(e);
+        }
+
+        return new PrimitiveStore(bits);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long call(final PrimitiveStore srcStore, final PrimitiveCodec codec, final Object callback)
+        throws Throwable
+    {
+        if (srcStore.isFulfilled())
+            return codec.fulfilled(callback, srcStore.bits);
+        else
+            return codec.rejected(callback, srcStore.exception);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private PrimitiveStore start()
+    {
+        if (srcStore.tryAddPendingAction(this))
+            return dstStore;
+
+        if (srcStore.state() == PromiseState.PENDING)
+            dstStore.setAlwaysPending();
+        else if (exec == null || callback() == null)
+            run();
+        else
+            dispatch();
+
+        return dstStore;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private Object callback()
+    {
+        return srcStore.isFulfilled() ? onFulfilled : onRejected;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void dispatch()
+    {
+        if (exec instanceof InlineExecutor) {
+            final Trampoline trampoline = Trampoline.enterInline((InlineExecutor) exec);
+
+            if (trampoline != null) {
+                try {
+                    run();
+                } finally {
+                    trampoline.exitInline();
+                }
+
+                return;
+            }
+        }
+
+        exec.execute(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void resolved(final Object callback)
+    {
+        if (callback == null)
+            run();
+        else if (exec == null)
+            srcStore.execute(this);
+        else
+            dispatch();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void run()
+    {
+        final boolean isFulfilled = srcStore.isFulfilled();
+        final Object callback = isFulfilled ? onFulfilled : onRejected;
+
+        if (callback == null) {
+            if (isFulfilled)
+                dstStore.setFulfilledBits(srcStore.bits);
+            else
+                dstStore.setRejected(null, srcStore.exception);
+
+            return;
+        }
+
+        final long bits;
+
+        try {
+            bits = call(srcStore, codec, callback);
+        } catch (final Throwable e) {
+            dstStore.setRejected(null, e);
+            return;
+        }
+
+        dstStore.setFulfilledBits(bits);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setAlwaysPending()
+    {
+        dstStore.setAlwaysPending();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setFulfilled(final Object value)
+    {
+        resolved(onFulfilled);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void setRejected(final Object reason, final Throwable exception)
+    {
+        resolved(onRejected);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
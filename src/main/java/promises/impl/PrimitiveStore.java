@@ -0,0 +1,109 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.PromiseRejectedException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+//---------------------------------------------------------------------------------------------------------------------
+final class PrimitiveStore extends PromiseStore
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    long bits = 0L;
+    //-----------------------------------------------------------------------------------------------------------------
+    PrimitiveStore()
+    {
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    PrimitiveStore(final long bits)
+    {
+        this.bits = bits;
+        initFulfilled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PrimitiveStore rejected(final Throwable exception)
+    {
+        final PrimitiveStore store = new PrimitiveStore();
+        store.setRejected(null, exception);
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static PrimitiveStore unbox(final Object promise, final PrimitiveCodec codec)
+    {
+        final PrimitiveStore dstStore = new PrimitiveStore();
+
+        try {
+            BaseResolver.resolveValue(promise, new ResolveAction() {
+                @Override public void setAlwaysPending() { dstStore.setAlwaysPending(); }
+
+                @Override public void setFulfilled(final Object value) {
+                    final long bits;
+
+                    try {
+                        bits = codec.unbox(value);
+                    } catch (final Throwable e) {
+                        dstStore.setRejected(null, e);
+                        return;
+                    }
+
+                    dstStore.setFulfilledBits(bits);
+                }
+
+                @Override public void setRejected(final Object reason, final Throwable exception) {
+                    dstStore.setRejected(null, exception);
+                }
+            });
+        } catch (final Throwable e) {
+            dstStore.setRejected(null, e);
+        }
+
+        return dstStore;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void setFulfilledBits(final long bits)
+    {
+        if (!startFulfilling())
+            return;
+
+        this.bits = bits;
+        finishFulfilling();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final long awaitBits(final Object promise) throws InterruptedException, PromiseRejectedException
+    {
+        awaitFulfilled(promise);
+        return bits;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final long awaitBits(final Object promise, final long timeout, final TimeUnit unit)
+        throws PromiseRejectedException, InterruptedException, TimeoutException
+    {
+        awaitFulfilled(promise, timeout, unit);
+        return bits;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final <V> LightWeightPromiseImpl<V> box(final PrimitiveCodec codec)
+    {
+        final PromiseFactory<LightWeightPromiseImpl<V>> factory = LightWeightPromiseImpl.factory();
+
+        if (isFulfilled())
+            return factory.fulfilledPromise(codec.box(bits));
+
+        final PromiseStore dstStore = new PromiseStore();
+
+        applyResolveAction(new ResolveAction() {
+            @Override public void setAlwaysPending() { dstStore.setAlwaysPending(); }
+            @Override public void setFulfilled(final Object value) { dstStore.setFulfilled(codec.box(bits)); }
+
+            @Override public void setRejected(final Object reason, final Throwable exception) {
+                dstStore.setRejected(null, exception);
+            }
+        });
+
+        return factory.mutablePromise(dstStore);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
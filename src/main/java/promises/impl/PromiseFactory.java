@@ -4,19 +4,187 @@
 // found at http://www.apache.org/licenses/LICENSE-2.0
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
+import promises.FR0;
+import promises.FR1;
+import promises.lw.AsyncCache;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 //---------------------------------------------------------------------------------------------------------------------
-public interface PromiseFactory<P>
+public abstract class PromiseFactory<P>
 {
     //-----------------------------------------------------------------------------------------------------------------
-    P originPromise();
+    PromiseFactory() {}
     //-----------------------------------------------------------------------------------------------------------------
-    P fulfilledPromise(final Object value);
+    public abstract P originPromise();
     //-----------------------------------------------------------------------------------------------------------------
-    P rejectedPromise(final Object reason, final Throwable exception);
+    public abstract P fulfilledPromise(final Object value);
     //-----------------------------------------------------------------------------------------------------------------
-    P alwaysPendingPromise();
+    public abstract P rejectedPromise(final Object reason, final Throwable exception);
     //-----------------------------------------------------------------------------------------------------------------
-    P mutablePromise(final PromiseStore store);
+    public abstract P alwaysPendingPromise();
+    //-----------------------------------------------------------------------------------------------------------------
+    public abstract P mutablePromise(final PromiseStore store);
+    //-----------------------------------------------------------------------------------------------------------------
+    P chainedPromise(final ChainStage<?, ?> stage)
+    {
+        return mutablePromise(stage.dstStore());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static Object[] toArray(final Iterable<?> promises)
+    {
+        if (promises instanceof Collection)
+            return ((Collection<?>) promises).toArray();
+
+        final ArrayList<Object> list = new ArrayList<Object>();
+
+        for (final Object promise : promises)
+            list.add(promise);
+
+        return list.toArray();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P all(final Object[] promises)
+    {
+        return AllStore.of(promises).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P all(final Iterable<?> promises)
+    {
+        return all(toArray(promises));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P allSettled(final Object[] promises)
+    {
+        return SettledStore.of(promises).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P allSettled(final Iterable<?> promises)
+    {
+        return allSettled(toArray(promises));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P race(final Object[] promises)
+    {
+        return RaceStore.race(promises).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P race(final Iterable<?> promises)
+    {
+        return race(toArray(promises));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P any(final Object[] promises)
+    {
+        return RaceStore.any(promises).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P any(final Iterable<?> promises)
+    {
+        return any(toArray(promises));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P mapAsync(
+        final Iterable<?> inputs,
+        final int parallelism,
+        final Executor exec,
+        final FR1<?, ?> mapper
+    ) {
+        return MapStore.of(inputs, parallelism, exec, mapper).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P loop(
+        final Executor exec,
+        final Object initial,
+        final FR1<?, ?> condition,
+        final FR1<?, ?> body
+    ) {
+        return AsyncLoop.fold(exec, initial, condition, body).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P whileAsync(
+        final Executor exec,
+        final FR0<?> condition,
+        final FR0<?> body
+    ) {
+        return AsyncLoop.whileLoop(exec, condition, body, false).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P doWhileAsync(
+        final Executor exec,
+        final FR0<?> body,
+        final FR0<?> condition
+    ) {
+        return AsyncLoop.whileLoop(exec, condition, body, true).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P forAsync(
+        final Executor exec,
+        final int from,
+        final int to,
+        final FR1<Integer, ?> body
+    ) {
+        return AsyncLoop.forLoop(exec, from, to, body).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P ifAsync(
+        final Executor exec,
+        final Object predicate,
+        final FR0<?> thenBranch,
+        final FR0<?> elseBranch
+    ) {
+        return Branch.ifElse(exec, predicate, thenBranch, elseBranch).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P switchAsync(
+        final Executor exec,
+        final Object selector,
+        final Map<?, ? extends FR0<?>> cases,
+        final FR0<?> defaultBranch
+    ) {
+        return Branch.switchCase(exec, selector, cases, defaultBranch).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P delay(final long millis, final Object value)
+    {
+        final HashedWheelTimer timer = HashedWheelTimer.instance;
+        final long deadline = timer.deadlineAfter(millis, TimeUnit.MILLISECONDS);
+
+        return timer.schedule(new HashedWheelTimer.Timeout(deadline, value)).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final P withTimeout(final Object promise, final long millis)
+    {
+        return DeadlineStore.of(promise, millis, TimeUnit.MILLISECONDS).createPromise(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final boolean cancel(final Object promise)
+    {
+        if (!(promise instanceof BasePromiseImpl))
+            return false;
+
+        final PromiseStore store = ((BasePromiseImpl) promise).mutableStore();
+        return store != null && store.cancelChain();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public final <K, V> AsyncCache<K, V> asyncCache(
+        final int capacity,
+        final long expireAfterWriteMillis,
+        final long expireAfterAccessMillis,
+        final FR1<? super K, ?> loader
+    ) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Non-positive cache capacity: " + capacity);
+
+        return new AsyncCacheImpl<K, V>(
+            capacity,
+            TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMillis),
+            TimeUnit.MILLISECONDS.toNanos(expireAfterAccessMillis),
+            loader
+        );
+    }
     //-----------------------------------------------------------------------------------------------------------------
 }
 //---------------------------------------------------------------------------------------------------------------------
@@ -4,37 +4,203 @@
 // found at http://www.apache.org/licenses/LICENSE-2.0
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
+import promises.BatchExecutor;
 import promises.InternalException;
+import promises.PromiseCancelledException;
 import promises.PromiseRejectedException;
 import promises.PromiseState;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 //---------------------------------------------------------------------------------------------------------------------
-final class PromiseStore implements Executor, ResolveAction
+class PromiseStore implements Executor, ResolveAction
 {
     //-----------------------------------------------------------------------------------------------------------------
-    private final CountDownLatch waitUntilResolved = new CountDownLatch(1);
-    boolean isAlwaysPending = false;
-    PromiseState state = PromiseState.PENDING;
+    private static final int PENDING = 0;
+    private static final int RESOLVING = 1;
+    private static final int FULFILLED = 2;
+    private static final int REJECTED = 3;
+    private static final int ALWAYS_PENDING = 4;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class WaitNode
+    {
+        volatile Thread thread = Thread.currentThread();
+        volatile WaitNode next = null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Object DRAINING = new Object();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Object DRAINED = new Object();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Object CANCELLING = new Object();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int REUSE_PROBES = 4;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<PromiseStore>
+    stateUpdater = AtomicIntegerFieldUpdater.newUpdater(PromiseStore.class, "stateWord");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<PromiseStore, Object>
+    actionsUpdater = AtomicReferenceFieldUpdater.newUpdater(PromiseStore.class, Object.class, "actions");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<PromiseStore, WaitNode>
+    waitersUpdater = AtomicReferenceFieldUpdater.newUpdater(PromiseStore.class, WaitNode.class, "waiters");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<PromiseStore, Object[]>
+    viewsUpdater = AtomicReferenceFieldUpdater.newUpdater(PromiseStore.class, Object[].class, "views");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicReferenceFieldUpdater<PromiseStore, Object>
+    upstreamUpdater = AtomicReferenceFieldUpdater.newUpdater(PromiseStore.class, Object.class, "upstream");
+    //-----------------------------------------------------------------------------------------------------------------
+    private volatile int stateWord = PENDING;
+    private volatile Object actions = null;
+    private volatile WaitNode waiters = null;
+    private volatile Object[] views = null;
     Object value = null;
     Object reason = null;
     Throwable exception = null;
-    private LinkedList<ResolveAction> pendingActionQ = null;
-    private ArrayList<Runnable> blockingCommandQ = null;
+    private Object blockingCommands = null;
+    private volatile ActionChunk reusable = null;
+    private volatile Object upstream = null;
     //-----------------------------------------------------------------------------------------------------------------
-    final Object await(final Object promise) throws InterruptedException, PromiseRejectedException
+    final PromiseState state()
+    {
+        switch (stateWord) {
+        case FULFILLED:
+            return PromiseState.FULFILLED;
+        case REJECTED:
+            return PromiseState.REJECTED;
+        default:
+            return PromiseState.PENDING;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean isFulfilled()
+    {
+        return stateWord == FULFILLED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean isCancelled()
+    {
+        return stateWord == REJECTED && exception instanceof PromiseCancelledException;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static boolean isResolved(final int state)
+    {
+        return state == FULFILLED || state == REJECTED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void removeWaiter(final WaitNode node)
+    {
+        if (node == null)
+            return;
+
+        node.thread = null;
+
+        retry:
+        for (;;) {
+            WaitNode pred = null;
+
+            for (WaitNode curr = waiters; curr != null; ) {
+                final WaitNode next = curr.next;
+
+                if (curr.thread != null)
+                    pred = curr;
+                else if (pred != null) {
+                    pred.next = next;
+
+                    if (pred.thread == null)
+                        continue retry;
+                } else if (!waitersUpdater.compareAndSet(this, curr, next))
+                    continue retry;
+
+                curr = next;
+            }
+
+            return;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private int awaitResolved(final boolean isTimed, final long timeoutNanos) throws InterruptedException
     {
-        waitUntilResolved.await();
-        final PromiseState state = this.state;
+        final long deadline = isTimed ? System.nanoTime() + timeoutNanos : 0L;
+        WaitNode node = null;
+        boolean isQueued = false;
+
+        for (;;) {
+            if (Thread.interrupted()) {
+                removeWaiter(node);
+                throw new InterruptedException();
+            }
+
+            final int state = stateWord;
+
+            if (isResolved(state)) {
+                if (node != null)
+                    node.thread = null;
+                return state;
+            }
+
+            if (node == null)
+                node = new WaitNode();
+            else if (!isQueued) {
+                final WaitNode head = waiters;
+                node.next = head;
+                isQueued = waitersUpdater.compareAndSet(this, head, node);
+            } else if (isTimed) {
+                final long nanos = deadline - System.nanoTime();
+
+                if (nanos <= 0L) {
+                    removeWaiter(node);
+                    return stateWord;
+                }
+
+                LockSupport.parkNanos(this, nanos);
+            } else
+                LockSupport.park(this);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void awaitResolvedUninterruptibly()
+    {
+        boolean isInterrupted = false;
+
+        for (;;) {
+            try {
+                awaitResolved(false, 0L);
+                break;
+            } catch (final InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted)
+            Thread.currentThread().interrupt();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void releaseWaiters()
+    {
+        for (WaitNode node = waitersUpdater.getAndSet(this, null); node != null; node = node.next) {
+            final Thread thread = node.thread;
+
+            if (thread != null) {
+                node.thread = null;
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void awaitFulfilled(final Object promise) throws InterruptedException, PromiseRejectedException
+    {
+        final int state = awaitResolved(false, 0L);
 
         switch (state) {
         case FULFILLED:
-            return value;
+            return;
         case REJECTED:
             throw new PromiseRejectedException(promise, reason, exception);
         default:
@@ -42,17 +208,24 @@ final class PromiseStore implements Executor, ResolveAction
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
-    final Object await(final Object promise, final long timeout, final TimeUnit unit)
+    final Object await(final Object promise) throws InterruptedException, PromiseRejectedException
+    {
+        awaitFulfilled(promise);
+        return MultiValue.materialize(value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void awaitFulfilled(final Object promise, final long timeout, final TimeUnit unit)
         throws PromiseRejectedException, InterruptedException, TimeoutException
     {
-        waitUntilResolved.await(timeout, unit);
-        final PromiseState state = this.state;
+        final int state = awaitResolved(true, unit.toNanos(timeout));
 
         switch (state) {
         case PENDING:
+        case RESOLVING:
+        case ALWAYS_PENDING:
             throw new TimeoutException("Timeout is reached for waiting this promise being resolved");
         case FULFILLED:
-            return value;
+            return;
         case REJECTED:
             throw new PromiseRejectedException(promise, reason, exception);
         default:
@@ -60,32 +233,80 @@ final class PromiseStore implements Executor, ResolveAction
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
-    final synchronized <P> P createPromise(final PromiseFactory<P> factory)
+    final Object await(final Object promise, final long timeout, final TimeUnit unit)
+        throws PromiseRejectedException, InterruptedException, TimeoutException
+    {
+        awaitFulfilled(promise, timeout, unit);
+        return MultiValue.materialize(value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private <P> P newPromise(final PromiseFactory<P> factory, final int state)
     {
-        if (isAlwaysPending)
-            return factory.alwaysPendingPromise();
-
         switch (state) {
         case PENDING:
+        case RESOLVING:
             return factory.mutablePromise(this);
         case FULFILLED:
             return factory.fulfilledPromise(value);
         case REJECTED:
             return factory.rejectedPromise(reason, exception);
+        case ALWAYS_PENDING:
+            return factory.alwaysPendingPromise();
         default:
             throw new InternalException("Unknown state %s", state);
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
-    private void inSyncAddToPendingActionQ(final ResolveAction resAction)
+    final <P> P createPromise(final PromiseFactory<P> factory)
     {
-        if (pendingActionQ == null)
-            pendingActionQ = new LinkedList<ResolveAction>();
+        final int state = stateWord;
+        final int style = PromiseViews.styleOf(factory);
+
+        if (style < 0 || state == ALWAYS_PENDING)
+            return newPromise(factory, state);
+
+        final int index = isResolved(state) ? style + PromiseViews.STYLES : style;
+        final Object[] views = this.views;
 
-        pendingActionQ.addLast(resAction);
+        if (views != null && views[index] != null)
+            return ImplUtil.cast(views[index]);
+
+        final P promise = newPromise(factory, state);
+        return ImplUtil.cast(PromiseViews.publish(viewsUpdater, this, PromiseViews.STYLES * 2, index, promise));
     }
     //-----------------------------------------------------------------------------------------------------------------
-    final <VCI, RCI, PO> PO inSyncNewMutablePromise(
+    private boolean tryPushAction(final ResolveAction resAction)
+    {
+        for (;;) {
+            final Object head = actions;
+            final Object newHead;
+
+            if (head == DRAINED)
+                return false;
+
+            if (head == CANCELLING) {
+                Thread.yield();
+                continue;
+            }
+
+            if (head == null || head == DRAINING)
+                newHead = resAction;
+            else if (head instanceof ActionChunk) {
+                final ActionChunk chunk = (ActionChunk) head;
+
+                if (chunk.tryAdd(resAction) >= 0)
+                    return true;
+
+                newHead = new ActionChunk(chunk, resAction);
+            } else
+                newHead = new ActionChunk((ResolveAction) head, resAction);
+
+            if (actionsUpdater.compareAndSet(this, head, newHead))
+                return true;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final <VCI, RCI, PO> PO newChainDstPromise(
         final PromiseFactory<PO> factory,
         final Executor exec,
         final FulfilledResolver<VCI, ?> fulResolver,
@@ -95,34 +316,23 @@ final class PromiseStore implements Executor, ResolveAction
         final RCI onRejected,
         final int onRejStackDiff
     ) {
-        final PromiseStore chainDstStore = new PromiseStore();
+        final ChainStage<VCI, RCI> stage = new ChainStage<VCI, RCI>(
+            this, exec,
+            fulResolver, onFulfilled, onFulStackDiff,
+            rejResolver, onRejected, onRejStackDiff
+        );
 
-        inSyncAddToPendingActionQ(new ResolveAction() {
-            @Override public void setAlwaysPending() { chainDstStore.setAlwaysPending(); }
+        final boolean isQueued = tryPushAction(stage);
 
-            @Override public void setFulfilled(final Object value) {
-                fulResolver.execAndResolve(PromiseStore.this, exec, onFulfilled, onFulStackDiff, chainDstStore);
-            }
-
-            @Override public void setRejected(final Object reason, final Throwable exception) {
-                rejResolver.execAndResolve(PromiseStore.this, exec, onRejected, onRejStackDiff, chainDstStore);
-            }
-        });
-
-        return factory.mutablePromise(chainDstStore);
+        return isQueued ? factory.chainedPromise(stage) : null;
     }
     //-----------------------------------------------------------------------------------------------------------------
-    final void applyResolveAction(final ResolveAction resAction)
+    private void applyResolvedAction(final ResolveAction resAction)
     {
-        synchronized (this) {
-            if (!isAlwaysPending && state == PromiseState.PENDING) {
-                inSyncAddToPendingActionQ(resAction);
-                return;
-            }
-        }
+        final int state = stateWord;
 
         switch (state) {
-        case PENDING:
+        case ALWAYS_PENDING:
             resAction.setAlwaysPending();
             break;
         case FULFILLED:
@@ -136,6 +346,213 @@ final class PromiseStore implements Executor, ResolveAction
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
+    final boolean tryAddPendingAction(final ResolveAction resAction)
+    {
+        final int state = stateWord;
+        return (state == PENDING || state == RESOLVING) && tryPushAction(resAction);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void applyResolveAction(final ResolveAction resAction)
+    {
+        if (!tryAddPendingAction(resAction))
+            applyResolvedAction(resAction);
+        else if (resAction instanceof PromiseStore)
+            ((PromiseStore) resAction).linkUpstream(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean tryReuseSlot(final DetachableAction action, final ActionChunk head)
+    {
+        ActionChunk chunk = reusable;
+
+        for (int probe = 0; probe < REUSE_PROBES; probe++) {
+            if (chunk == null)
+                chunk = head;
+
+            final int slot = chunk.tryReuse(action);
+
+            if (slot >= 0) {
+                if (stateWord != PENDING) {
+                    chunk.removeAt(slot, action);
+                    return false;
+                }
+
+                reusable = chunk;
+                action.locate(chunk, slot);
+                return true;
+            }
+
+            chunk = chunk.prev();
+        }
+
+        if (stateWord == PENDING)
+            reusable = chunk;
+
+        return false;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean tryPushDetachable(final DetachableAction action)
+    {
+        for (;;) {
+            final Object head = actions;
+            final ActionChunk newHead;
+
+            if (head == DRAINED)
+                return false;
+
+            if (head == CANCELLING) {
+                Thread.yield();
+                continue;
+            }
+
+            if (head == null || head == DRAINING) {
+                action.locate(null, 0);
+
+                if (actionsUpdater.compareAndSet(this, head, action))
+                    return true;
+
+                continue;
+            }
+
+            if (head instanceof ActionChunk) {
+                final ActionChunk chunk = (ActionChunk) head;
+                final int slot = chunk.tryAdd(action);
+
+                if (slot >= 0) {
+                    action.locate(chunk, slot);
+                    return true;
+                }
+
+                if (tryReuseSlot(action, chunk))
+                    return true;
+
+                newHead = new ActionChunk(chunk, action);
+                action.locate(newHead, 0);
+            } else {
+                newHead = new ActionChunk((ResolveAction) head, action);
+                action.locate(newHead, 1);
+            }
+
+            if (actionsUpdater.compareAndSet(this, head, newHead))
+                return true;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void subscribe(final DetachableAction action)
+    {
+        final int state = stateWord;
+
+        if ((state == PENDING || state == RESOLVING) && tryPushDetachable(action))
+            return;
+
+        applyResolvedAction(action);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean tryDetachLast(final ResolveAction resAction)
+    {
+        final Object head = actions;
+
+        if (head == resAction)
+            return actionsUpdater.compareAndSet(this, resAction, CANCELLING);
+
+        if (!(head instanceof ActionChunk))
+            return false;
+
+        final ActionChunk chunk = (ActionChunk) head;
+
+        if (!chunk.remove(resAction) || !chunk.tryClaimDetached())
+            return false;
+
+        if (actionsUpdater.compareAndSet(this, chunk, CANCELLING))
+            return true;
+
+        chunk.releaseClaimed();
+        return false;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean tryCancelDetached(final ResolveAction resAction)
+    {
+        if (!tryDetachLast(resAction))
+            return false;
+
+        final boolean isCancelling = waiters == null && stateUpdater.compareAndSet(this, PENDING, RESOLVING);
+        actionsUpdater.compareAndSet(this, CANCELLING, null);
+
+        if (isCancelling)
+            finishCancelling();
+
+        return isCancelling;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean tryCancel()
+    {
+        if (!stateUpdater.compareAndSet(this, PENDING, RESOLVING))
+            return false;
+
+        finishCancelling();
+        return true;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void finishCancelling()
+    {
+        this.exception = new PromiseCancelledException();
+        stateWord = REJECTED;
+        releaseWaiters();
+        Trampoline.drain(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void linkUpstream(final PromiseStore source)
+    {
+        upstream = source;
+
+        if (isCancelledOnceResolved())
+            cancelUpstreams(this);
+        else if (stateWord != PENDING)
+            upstreamUpdater.compareAndSet(this, source, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private PromiseStore cancelUpstream()
+    {
+        final Object upstream = upstreamUpdater.getAndSet(this, null);
+        final PromiseStore source;
+        final ResolveAction resAction;
+
+        if (upstream instanceof ChainStage) {
+            source = ((ChainStage<?, ?>) upstream).srcStore();
+            resAction = (ChainStage<?, ?>) upstream;
+        } else if (upstream instanceof PromiseStore) {
+            source = (PromiseStore) upstream;
+            resAction = this;
+        } else
+            return null;
+
+        return source != null && source.tryCancelDetached(resAction) ? source : null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static void cancelUpstreams(final PromiseStore cancelled)
+    {
+        for (PromiseStore store = cancelled; store != null; store = store.cancelUpstream())
+            ;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean cancelChain()
+    {
+        if (!tryCancel())
+            return false;
+
+        cancelUpstreams(this);
+        return true;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void removeAction(final ResolveAction resAction)
+    {
+        final Object head = actions;
+
+        if (head == resAction)
+            actionsUpdater.compareAndSet(this, resAction, null);
+        else if (head instanceof ActionChunk)
+            ((ActionChunk) head).removeFirst(resAction);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     final <VCI, RCI, PO> PO doThen(
         final PromiseFactory<PO> factory,
         final Executor exec,
@@ -146,51 +563,60 @@ final class PromiseStore implements Executor, ResolveAction
         final RCI onRejected,
         final int onRejStackDiff
     ) {
-        final BaseResolver<VCI, RCI> resolver;
+        if (onFulfilled == null && onRejected == null)
+            return createPromise(factory);
 
-        synchronized (this) {
-            if (isAlwaysPending)
-                return factory.alwaysPendingPromise();
+        int state = stateWord;
 
-            switch (state) {
-            case PENDING:
-                return inSyncNewMutablePromise(
-                    factory, exec,
-                    fulResolver, onFulfilled, onFulStackDiff,
-                    rejResolver, onRejected, onRejStackDiff
-                );
+        if (state == PENDING || state == RESOLVING) {
+            final PO promise = newChainDstPromise(
+                factory, exec,
+                fulResolver, onFulfilled, onFulStackDiff,
+                rejResolver, onRejected, onRejStackDiff
+            );
 
-            case FULFILLED:
-                if (pendingActionQ != null) {
-                    final PO promise = fulResolver.inSyncNonBlockingChainDstPromise(
-                        this, factory, exec,
-                        onFulfilled, onFulStackDiff
-                    );
+            if (promise != null)
+                return promise;
 
-                    if (promise != null)
-                        return promise;
-                }
+            state = stateWord;
+        }
 
-                resolver = fulResolver;
-                break;
+        final BaseResolver<VCI, RCI> resolver;
 
-            case REJECTED:
-                if (pendingActionQ != null) {
-                    final PO promise = rejResolver.inSyncNonBlockingChainDstPromise(
-                        this, factory, exec,
-                        onRejected, onRejStackDiff
-                    );
+        switch (state) {
+        case ALWAYS_PENDING:
+            return factory.alwaysPendingPromise();
 
-                    if (promise != null)
-                        return promise;
-                }
+        case FULFILLED:
+            if (actions != DRAINED) {
+                final PO promise = fulResolver.drainingChainDstPromise(
+                    this, factory, exec,
+                    onFulfilled, onFulStackDiff
+                );
 
-                resolver = rejResolver;
-                break;
+                if (promise != null)
+                    return promise;
+            }
+
+            resolver = fulResolver;
+            break;
 
-            default:
-                throw new InternalException("Unknown state %s", state);
+        case REJECTED:
+            if (actions != DRAINED) {
+                final PO promise = rejResolver.drainingChainDstPromise(
+                    this, factory, exec,
+                    onRejected, onRejStackDiff
+                );
+
+                if (promise != null)
+                    return promise;
             }
+
+            resolver = rejResolver;
+            break;
+
+        default:
+            throw new InternalException("Unknown state %s", state);
         }
 
         return resolver.delayedChainDstPromise(
@@ -203,109 +629,227 @@ final class PromiseStore implements Executor, ResolveAction
     @Override
     public final void execute(@Nonnull final Runnable command)
     {
-        if (blockingCommandQ == null)
-            blockingCommandQ = new ArrayList<Runnable>();
+        if (blockingCommands == null)
+            blockingCommands = command;
+        else if (blockingCommands instanceof ArrayList) {
+            final ArrayList<Runnable> commands = ImplUtil.cast(blockingCommands);
+            commands.add(command);
+        } else {
+            final ArrayList<Runnable> commands = new ArrayList<Runnable>();
+            commands.add((Runnable) blockingCommands);
+            commands.add(command);
+            blockingCommands = commands;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void runBlockingCommands()
+    {
+        final Object commands = blockingCommands;
+
+        if (commands == null)
+            return;
 
-        blockingCommandQ.add(command);
+        blockingCommands = null;
+
+        if (commands instanceof ArrayList) {
+            for (final Runnable command : ImplUtil.<ArrayList<Runnable>>cast(commands))
+                command.run();
+        } else
+            ((Runnable) commands).run();
     }
     //-----------------------------------------------------------------------------------------------------------------
-    private synchronized ResolveAction nextPendingAction()
+    private void runPendingActions(final Object batch)
     {
-        if (!pendingActionQ.isEmpty())
-            return pendingActionQ.removeFirst();
-        else {
-            pendingActionQ = null;
-            return null;
+        if (batch instanceof ActionChunk) {
+            final boolean isDispatchable = isResolved(stateWord);
+            DispatchBatch dispatches = null;
+
+            for (ActionChunk chunk = ((ActionChunk) batch).sealInOrder(); chunk != null; chunk = chunk.next()) {
+                for (int index = 0, size = chunk.size(); index < size; index++) {
+                    final ResolveAction resAction = chunk.get(index);
+
+                    if (isDispatchable && resAction instanceof ChainStage) {
+                        final ChainStage<?, ?> stage = (ChainStage<?, ?>) resAction;
+                        final BatchExecutor exec = stage.batchExecutor();
+
+                        if (exec != null) {
+                            dispatches = DispatchBatch.add(dispatches, exec, stage);
+                            continue;
+                        }
+                    }
+
+                    applyResolvedAction(resAction);
+                }
+            }
+
+            DispatchBatch.submitAll(dispatches);
+        } else if (batch != null && batch != CANCELLING)
+            applyResolvedAction((ResolveAction) batch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void drainPendingActions()
+    {
+        reusable = null;
+
+        Object batch = actionsUpdater.getAndSet(this, DRAINING);
+
+        for (;;) {
+            runPendingActions(batch);
+
+            if (actionsUpdater.compareAndSet(this, DRAINING, DRAINED))
+                break;
+
+            batch = actionsUpdater.getAndSet(this, DRAINING);
         }
+
+        runBlockingCommands();
     }
     //-----------------------------------------------------------------------------------------------------------------
-    private void runBlockingCommands()
+    private boolean isCancelledOnceResolved()
     {
-        if (blockingCommandQ != null) {
-            for (final Runnable command : blockingCommandQ)
-                command.run();
-            blockingCommandQ = null;
+        if (stateWord == RESOLVING)
+            awaitResolvedUninterruptibly();
+
+        return isCancelled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean startResolving(final String alwaysPendingMsg, final String resolvedMsg)
+    {
+        if (stateUpdater.compareAndSet(this, PENDING, RESOLVING)) {
+            upstream = null;
+            return true;
         }
+
+        if (isCancelledOnceResolved())
+            return false;
+
+        throw new InternalException(stateWord == ALWAYS_PENDING ? alwaysPendingMsg : resolvedMsg);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void initFulfilled()
+    {
+        stateWord = FULFILLED;
+        actions = DRAINED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void initFulfilled(final Object value)
+    {
+        this.value = value;
+        initFulfilled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void initRejected(final Object reason, final Throwable exception)
+    {
+        this.reason = reason;
+        this.exception = exception;
+        stateWord = REJECTED;
+        actions = DRAINED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void initAlwaysPending()
+    {
+        stateWord = ALWAYS_PENDING;
+        actions = DRAINED;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void initPending(final ResolveAction resAction, final Object upstream)
+    {
+        this.actions = resAction;
+        this.upstream = upstream;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final boolean startFulfilling()
+    {
+        return startResolving(
+            "Unexpected fulfilling this always-pending promise",
+            "Not allowed fulfilling this resolved promise"
+        );
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void finishFulfilling()
+    {
+        stateWord = FULFILLED;
+        releaseWaiters();
+        Trampoline.drain(this);
     }
     //-----------------------------------------------------------------------------------------------------------------
     @Override
     public final void setAlwaysPending()
     {
-        synchronized (this) {
-            if (isAlwaysPending)
+        if (!stateUpdater.compareAndSet(this, PENDING, ALWAYS_PENDING)) {
+            if (isCancelledOnceResolved())
+                return;
+            else if (stateWord == ALWAYS_PENDING)
                 throw new InternalException("Not allowed setting always pending more than once");
-            if (state != PromiseState.PENDING)
+            else
                 throw new InternalException("Not allowed setting always pending after this promise is resolved");
-
-            isAlwaysPending = true;
         }
 
-        if (pendingActionQ != null) {
-            for (final ResolveAction action : pendingActionQ)
-                action.setAlwaysPending();
-            pendingActionQ = null;
-        }
+        upstream = null;
+        Trampoline.drain(this);
     }
     //-----------------------------------------------------------------------------------------------------------------
     @Override
     public final void setFulfilled(final Object value)
     {
-        ResolveAction action;
-
-        synchronized (this) {
-            if (isAlwaysPending)
-                throw new InternalException("Unexpected fulfilling this always-pending promise");
-            if (state != PromiseState.PENDING)
-                throw new InternalException("Not allowed fulfilling this resolved promise");
-
-            this.state = PromiseState.FULFILLED;
-            this.value = value;
-
-            waitUntilResolved.countDown();
-
-            if (pendingActionQ == null)
-                return;
-
-            action = pendingActionQ.removeFirst();
-        }
+        if (!startFulfilling())
+            return;
 
-        do {
-            action.setFulfilled(value);
-            action = nextPendingAction();
-        } while (action != null);
-
-        runBlockingCommands();
+        this.value = value;
+        finishFulfilling();
     }
     //-----------------------------------------------------------------------------------------------------------------
     @Override
     public final void setRejected(final Object reason, final Throwable exception)
     {
-        ResolveAction action;
-
-        synchronized (this) {
-            if (isAlwaysPending)
-                throw new InternalException("Unexpected rejecting this always-pending promise");
-            if (state != PromiseState.PENDING)
-                throw new InternalException("Not allowed rejecting this resolved promise");
-
-            this.state = PromiseState.REJECTED;
-            this.reason = reason;
-            this.exception = exception;
+        if (!startResolving(
+            "Unexpected rejecting this always-pending promise",
+            "Not allowed rejecting this resolved promise"
+        ))
+            return;
+
+        this.reason = reason;
+        this.exception = exception;
+        stateWord = REJECTED;
+        releaseWaiters();
+        Trampoline.drain(this);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private ChainStage<?, ?> nextStageOnceSettled()
+    {
+        releaseWaiters();
 
-            waitUntilResolved.countDown();
+        final Object head = actions;
 
-            if (pendingActionQ == null)
-                return;
+        if (head instanceof ChainStage && actionsUpdater.compareAndSet(this, head, DRAINED))
+            return (ChainStage<?, ?>) head;
 
-            action = pendingActionQ.removeFirst();
-        }
+        Trampoline.drain(this);
+        return null;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ChainStage<?, ?> settleFulfilled(final Object value)
+    {
+        if (!startFulfilling())
+            return null;
 
-        do {
-            action.setRejected(reason, exception);
-            action = nextPendingAction();
-        } while (action != null);
+        this.value = value;
+        stateWord = FULFILLED;
+        return nextStageOnceSettled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final ChainStage<?, ?> settleRejected(final Object reason, final Throwable exception)
+    {
+        if (!startResolving(
+            "Unexpected rejecting this always-pending promise",
+            "Not allowed rejecting this resolved promise"
+        ))
+            return null;
 
-        runBlockingCommands();
+        this.reason = reason;
+        this.exception = exception;
+        stateWord = REJECTED;
+        return nextStageOnceSettled();
     }
     //-----------------------------------------------------------------------------------------------------------------
 }
@@ -0,0 +1,52 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+final class PromiseViews
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    static final int STYLES = 3;
+    static final int REJECTION = STYLES;
+    static final int SLOTS = STYLES + 1;
+    //-----------------------------------------------------------------------------------------------------------------
+    private PromiseViews() {}
+    //-----------------------------------------------------------------------------------------------------------------
+    static int styleOf(final PromiseFactory<?> factory)
+    {
+        if (factory == UntypedPromiseImpl.factory)
+            return 0;
+        else if (factory == TypedPromiseImpl.factory())
+            return 1;
+        else if (factory == LightWeightPromiseImpl.factory())
+            return 2;
+        else
+            return -1;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static <T> Object publish(
+        final AtomicReferenceFieldUpdater<T, Object[]> viewsUpdater,
+        final T owner,
+        final int size,
+        final int index,
+        final Object view
+    ) {
+        for (;;) {
+            final Object[] views = viewsUpdater.get(owner);
+
+            if (views != null && views[index] != null)
+                return views[index];
+
+            final Object[] newViews = views != null ? views.clone() : new Object[size];
+            newViews[index] = view;
+
+            if (viewsUpdater.compareAndSet(owner, views, newViews))
+                return view;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,141 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.AggregateException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+final class RaceStore extends PromiseStore
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<RaceStore>
+    remainingUpdater = AtomicIntegerFieldUpdater.newUpdater(RaceStore.class, "remaining");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Entrant extends DetachableAction
+    {
+        private final RaceStore race;
+        private final int index;
+
+        Entrant(final RaceStore race, final int index) {
+            this.race = race;
+            this.index = index;
+        }
+
+        @Override void fulfilled(final Object value) { race.fulfillFirst(value); }
+
+        @Override void rejected(final Object reason, final Throwable exception) {
+            race.rejectAt(index, reason, exception);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final Entrant[] entrants;
+    private final Object[] reasons;
+    private final Throwable[] exceptions;
+    private volatile int remaining;
+    //-----------------------------------------------------------------------------------------------------------------
+    private RaceStore(final int count, final boolean any)
+    {
+        this.entrants = new Entrant[count];
+        this.reasons = any ? new Object[count] : null;
+        this.exceptions = any ? new Throwable[count] : null;
+        this.remaining = any ? count : 1;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static RaceStore race(final Object[] promises)
+    {
+        final RaceStore store = new RaceStore(promises.length, false);
+
+        if (promises.length == 0) {
+            store.setAlwaysPending();
+            return store;
+        }
+
+        return store.subscribeAll(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static RaceStore any(final Object[] promises)
+    {
+        final RaceStore store = new RaceStore(promises.length, true);
+
+        if (promises.length == 0) {
+            store.rejectAll();
+            return store;
+        }
+
+        return store.subscribeAll(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private RaceStore subscribeAll(final Object[] promises)
+    {
+        for (int i = 0; i < promises.length && remaining > 0; i++) {
+            final Entrant entrant = new Entrant(this, i);
+            entrants[i] = entrant;
+
+            try {
+                entrant.subscribe(promises[i]);
+            } catch (final Throwable e) {
+                entrant.setRejected(null, e);
+            }
+
+            if (remaining <= 0)
+                entrant.detach();
+        }
+
+        return this;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void detachAll()
+    {
+        for (final Entrant entrant : entrants) {
+            if (entrant != null)
+                entrant.detach();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void rejectAll()
+    {
+        setRejected(Arrays.asList(reasons), new AggregateException(Arrays.asList(exceptions)));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void fulfillFirst(final Object value)
+    {
+        if (remainingUpdater.getAndSet(this, 0) > 0) {
+            setFulfilled(value);
+            detachAll();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void rejectAt(final int index, final Object reason, final Throwable exception)
+    {
+        if (reasons == null) {
+            if (remainingUpdater.getAndSet(this, 0) > 0) {
+                setRejected(reason, exception);
+                detachAll();
+            }
+
+            return;
+        }
+
+        reasons[index] = reason;
+        exceptions[index] = exception;
+
+        for (;;) {
+            final int remaining = this.remaining;
+
+            if (remaining <= 0)
+                return;
+
+            if (remainingUpdater.compareAndSet(this, remaining, remaining - 1)) {
+                if (remaining == 1)
+                    rejectAll();
+
+                return;
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -6,6 +6,7 @@
 package promises.impl;
 import promises.FR1;
 import promises.FR2;
+import promises.InlineExecutor;
 import java.util.concurrent.Executor;
 //---------------------------------------------------------------------------------------------------------------------
 abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
@@ -13,24 +14,25 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
     //-----------------------------------------------------------------------------------------------------------------
     private static final RejectedResolver<Object, Object>
     byNullOnRejected = new RejectedResolver<Object, Object>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object reason,
+            final Throwable exception,
             final Executor exec,
             final Object onRejected,
             final int onRejStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            resAction.setRejected(store.reason, store.exception);
+            return dstStage.settleRejected(reason, exception);
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
             final Object onRejected,
             final int onRejStackDiff
         ) {
-            return factory.rejectedPromise(store.reason, store.exception);
+            return store.createPromise(factory);
         }
 
         @Override <PO> PO delayedChainDstPromise(
@@ -42,7 +44,7 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final Object onRejected,
             final int onRejStackDiff
         ) {
-            return factory.rejectedPromise(store.reason, store.exception);
+            return store.createPromise(factory);
         }
 
         @Override <PO> PO chainDstPromise(
@@ -59,17 +61,20 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
     //-----------------------------------------------------------------------------------------------------------------
     private static final RejectedResolver<Object, FR2<Object, Throwable, ?>>
     byNullExecutor = new RejectedResolver<Object, FR2<Object, Throwable, ?>>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override boolean isDeferred() { return true; }
+
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object reason,
+            final Throwable exception,
             final Executor exec,
             final FR2<Object, Throwable, ?> onRejected,
             final int onRejStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            doExecAndResolve(store, onRejected, onRejStackDiff, store.reason, store.exception, resAction);
+            return doSettle(onRejected, onRejStackDiff, reason, exception, dstStage);
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
@@ -88,9 +93,7 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final FR2<Object, Throwable, ?> onRejected,
             final int onRejStackDiff
         ) {
-            final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
-            doResolve(onRejected, onRejStackDiff, store.reason, store.exception, chain);
-            return chain.dstPromise();
+            return doChain(factory, onRejected, onRejStackDiff, store.reason, store.exception);
         }
 
         @Override <PO> PO chainDstPromise(
@@ -101,32 +104,34 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final Object reason,
             final Throwable exception
         ) {
-            final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
-            doResolve(onRejected, onRejStackDiff, reason, exception, chain);
-            return chain.dstPromise();
+            return doChain(factory, onRejected, onRejStackDiff, reason, exception);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
     private static final RejectedResolver<Object, FR2<Object, Throwable, ?>>
     byNonNull = new RejectedResolver<Object, FR2<Object, Throwable, ?>>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override RejectedResolver<Object, FR2<Object, Throwable, ?>> inPlace() { return byNullExecutor; }
+
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object reason,
+            final Throwable exception,
             final Executor exec,
             final FR2<Object, Throwable, ?> onRejected,
             final int onRejStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            doExecAndResolve(exec, onRejected, onRejStackDiff, store.reason, store.exception, resAction);
+            doExecAndResolve(exec, onRejected, onRejStackDiff, reason, exception, dstStage.dstStore());
+            return null;
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
             final FR2<Object, Throwable, ?> onRejected,
             final int onRejStackDiff
         ) {
-            return store.inSyncNewMutablePromise(factory, exec, null, null, 0, this, onRejected, onRejStackDiff);
+            return store.newChainDstPromise(factory, exec, null, null, 0, this, onRejected, onRejStackDiff);
         }
 
         @Override <PO> PO delayedChainDstPromise(
@@ -159,17 +164,20 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
     //-----------------------------------------------------------------------------------------------------------------
     private static final RejectedResolver<Object, FR1<Throwable, ?>>
     byLightWeightNullExecutor = new RejectedResolver<Object, FR1<Throwable, ?>>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override boolean isDeferred() { return true; }
+
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object reason,
+            final Throwable exception,
             final Executor exec,
             final FR1<Throwable, ?> onRejected,
             final int onRejStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            doExecAndResolve(store, onRejected, onRejStackDiff, store.exception, resAction);
+            return doSettle(onRejected, onRejStackDiff, exception, dstStage);
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
@@ -188,9 +196,7 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final FR1<Throwable, ?> onRejected,
             final int onRejStackDiff
         ) {
-            final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
-            doResolve(onRejected, onRejStackDiff, store.exception, chain);
-            return chain.dstPromise();
+            return doChain(factory, onRejected, onRejStackDiff, store.exception);
         }
 
         @Override <PO> PO chainDstPromise(
@@ -201,32 +207,34 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             final Object reason,
             final Throwable exception
         ) {
-            final ResolvedChain<PO> chain = new ResolvedChain<PO>(factory);
-            doResolve(onRejected, onRejStackDiff, exception, chain);
-            return chain.dstPromise();
+            return doChain(factory, onRejected, onRejStackDiff, exception);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
     private static final RejectedResolver<Object, FR1<Throwable, ?>>
     byLightWeightNonNull = new RejectedResolver<Object, FR1<Throwable, ?>>() {
-        @Override void execAndResolve(
-            final PromiseStore store,
+        @Override RejectedResolver<Object, FR1<Throwable, ?>> inPlace() { return byLightWeightNullExecutor; }
+
+        @Override ChainStage<?, ?> execAndSettle(
+            final Object reason,
+            final Throwable exception,
             final Executor exec,
             final FR1<Throwable, ?> onRejected,
             final int onRejStackDiff,
-            final ResolveAction resAction
+            final ChainStage<?, ?> dstStage
         ) {
-            doExecAndResolve(exec, onRejected, onRejStackDiff, store.exception, resAction);
+            doExecAndResolve(exec, onRejected, onRejStackDiff, exception, dstStage.dstStore());
+            return null;
         }
 
-        @Override <PO> PO inSyncNonBlockingChainDstPromise(
+        @Override <PO> PO drainingChainDstPromise(
             final PromiseStore store,
             final PromiseFactory<PO> factory,
             final Executor exec,
             final FR1<Throwable, ?> onRejected,
             final int onRejStackDiff
         ) {
-            return store.inSyncNewMutablePromise(factory, exec, null, null, 0, this, onRejected, onRejStackDiff);
+            return store.newChainDstPromise(factory, exec, null, null, 0, this, onRejected, onRejStackDiff);
         }
 
         @Override <PO> PO delayedChainDstPromise(
@@ -271,6 +279,42 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
+    private static ChainStage<?, ?> doSettle(
+        final FR2<Object, Throwable, ?> onRejected,
+        final int onRejStackDiff,
+        final Object reason,
+        final Throwable exception,
+        final ChainStage<?, ?> dstStage
+    ) {
+        final Object result;
+
+        try {
+            result = onRejected.call(reason, exception);
+        } catch (final Throwable e) {
+            return dstStage.settleRejected(null, e);
+        }
+
+        return settleValue(result, dstStage);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static <PO> PO doChain(
+        final PromiseFactory<PO> factory,
+        final FR2<Object, Throwable, ?> onRejected,
+        final int onRejStackDiff,
+        final Object reason,
+        final Throwable exception
+    ) {
+        final Object result;
+
+        try {
+            result = onRejected.call(reason, exception);
+        } catch (final Throwable e) {
+            return factory.rejectedPromise(null, e);
+        }
+
+        return resolvedDstPromise(factory, result);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     private static void doExecAndResolve(
         final Executor exec,
         final FR2<Object, Throwable, ?> onRejected,
@@ -279,8 +323,23 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
         final Throwable exception,
         final ResolveAction resAction
     ) {
+        if (exec instanceof InlineExecutor) {
+            final Trampoline trampoline = Trampoline.enterInline((InlineExecutor) exec);
+
+            if (trampoline != null) {
+                try {
+                    doResolve(onRejected, onRejStackDiff, reason, exception, resAction);
+                } finally {
+                    trampoline.exitInline();
+                }
+
+                return;
+            }
+        }
+
         exec.execute(new Runnable() { @Override public void run() {
-            doResolve(onRejected, onRejStackDiff, reason, exception, resAction);
+            if (!isCancelled(resAction))
+                doResolve(onRejected, onRejStackDiff, reason, exception, resAction);
         }});
     }
     //-----------------------------------------------------------------------------------------------------------------
@@ -308,6 +367,40 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
         }
     }
     //-----------------------------------------------------------------------------------------------------------------
+    private static ChainStage<?, ?> doSettle(
+        final FR1<Throwable, ?> onRejected,
+        final int onRejStackDiff,
+        final Throwable exception,
+        final ChainStage<?, ?> dstStage
+    ) {
+        final Object result;
+
+        try {
+            result = onRejected.call(exception);
+        } catch (final Throwable e) {
+            return dstStage.settleRejected(null, e);
+        }
+
+        return settleValue(result, dstStage);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static <PO> PO doChain(
+        final PromiseFactory<PO> factory,
+        final FR1<Throwable, ?> onRejected,
+        final int onRejStackDiff,
+        final Throwable exception
+    ) {
+        final Object result;
+
+        try {
+            result = onRejected.call(exception);
+        } catch (final Throwable e) {
+            return factory.rejectedPromise(null, e);
+        }
+
+        return resolvedDstPromise(factory, result);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     private static void doExecAndResolve(
         final Executor exec,
         final FR1<Throwable, ?> onRejected,
@@ -315,8 +408,23 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
         final Throwable exception,
         final ResolveAction resAction
     ) {
+        if (exec instanceof InlineExecutor) {
+            final Trampoline trampoline = Trampoline.enterInline((InlineExecutor) exec);
+
+            if (trampoline != null) {
+                try {
+                    doResolve(onRejected, onRejStackDiff, exception, resAction);
+                } finally {
+                    trampoline.exitInline();
+                }
+
+                return;
+            }
+        }
+
         exec.execute(new Runnable() { @Override public void run() {
-            doResolve(onRejected, onRejStackDiff, exception, resAction);
+            if (!isCancelled(resAction))
+                doResolve(onRejected, onRejStackDiff, exception, resAction);
         }});
     }
     //-----------------------------------------------------------------------------------------------------------------
@@ -330,15 +438,21 @@ abstract class RejectedResolver<VCI, RCI> extends BaseResolver<VCI, RCI>
             return ImplUtil.cast(byLightWeightNonNull);
     }
     //-----------------------------------------------------------------------------------------------------------------
-    abstract void execAndResolve(
-        final PromiseStore store,
+    RejectedResolver<VCI, RCI> inPlace()
+    {
+        return this;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract ChainStage<?, ?> execAndSettle(
+        final Object reason,
+        final Throwable exception,
         final Executor exec,
         final RCI onRejected,
         final int onRejStackDiff,
-        final ResolveAction resAction
+        final ChainStage<?, ?> dstStage
     );
     //-----------------------------------------------------------------------------------------------------------------
-    abstract <PO> PO inSyncNonBlockingChainDstPromise(
+    abstract <PO> PO drainingChainDstPromise(
         final PromiseStore store,
         final PromiseFactory<PO> factory,
         final Executor exec,
@@ -4,15 +4,8 @@
 // found at http://www.apache.org/licenses/LICENSE-2.0
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
+import promises.Adopter;
 //---------------------------------------------------------------------------------------------------------------------
-interface ResolveAction
-{
-    //-----------------------------------------------------------------------------------------------------------------
-    void setAlwaysPending();
-    //-----------------------------------------------------------------------------------------------------------------
-    void setFulfilled(final Object value);
-    //-----------------------------------------------------------------------------------------------------------------
-    void setRejected(final Object reason, final Throwable exception);
-    //-----------------------------------------------------------------------------------------------------------------
-}
+interface ResolveAction extends Adopter
+{ }
 //---------------------------------------------------------------------------------------------------------------------
@@ -56,6 +56,11 @@ final class ResolvedChain<PO> implements ResolveAction
         dstStore.setRejected(reason, exception);
     }
     //-----------------------------------------------------------------------------------------------------------------
+    final synchronized boolean isCancelled()
+    {
+        return dstStore != null && dstStore.isCancelled();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     final synchronized PO dstPromise()
     {
         if (dstPromise != null)
@@ -0,0 +1,59 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+abstract class ResumableAction implements Runnable, ResolveAction
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int RESUMED = 2;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<ResumableAction>
+    phaseUpdater = AtomicIntegerFieldUpdater.newUpdater(ResumableAction.class, "phase");
+    //-----------------------------------------------------------------------------------------------------------------
+    private volatile int phase = IDLE;
+    //-----------------------------------------------------------------------------------------------------------------
+    abstract void step();
+    //-----------------------------------------------------------------------------------------------------------------
+    final void dispatch(final Executor exec)
+    {
+        if (phaseUpdater.compareAndSet(this, RUNNING, RESUMED))
+            return;
+
+        phase = RUNNING;
+
+        if (exec == null) {
+            run();
+            return;
+        }
+
+        try {
+            exec.execute(this);
+        } catch (final Throwable e) {
+            phase = IDLE;
+            setRejected(null, e);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final void run()
+    {
+        do {
+            step();
+        } while (!phaseUpdater.compareAndSet(this, RUNNING, IDLE) && resume());
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private boolean resume()
+    {
+        phase = RUNNING;
+        return true;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
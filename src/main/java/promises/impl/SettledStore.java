@@ -0,0 +1,126 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.PromiseState;
+import promises.Settlements;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+//---------------------------------------------------------------------------------------------------------------------
+final class SettledStore extends PromiseStore
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final AtomicIntegerFieldUpdater<SettledStore>
+    remainingUpdater = AtomicIntegerFieldUpdater.newUpdater(SettledStore.class, "remaining");
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Element implements ResolveAction
+    {
+        private final SettledStore store;
+        private final boolean inline;
+        private int index;
+
+        Element(final SettledStore store, final boolean inline, final int index) {
+            this.store = store;
+            this.inline = inline;
+            this.index = index;
+        }
+
+        @Override public void setAlwaysPending() { }
+
+        @Override public void setFulfilled(final Object value) {
+            store.settleAt(index, PromiseState.FULFILLED, MultiValue.materialize(value), null, null, inline);
+        }
+
+        @Override public void setRejected(final Object reason, final Throwable exception) {
+            store.settleAt(index, PromiseState.REJECTED, null, reason, exception, inline);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private final PromiseState[] states;
+    private final Object[] values;
+    private final Object[] reasons;
+    private final Throwable[] exceptions;
+    private volatile int remaining;
+    private int settledInline = 0;
+    //-----------------------------------------------------------------------------------------------------------------
+    private SettledStore(final int count)
+    {
+        this.states = new PromiseState[count];
+        this.values = new Object[count];
+        this.reasons = new Object[count];
+        this.exceptions = new Throwable[count];
+        this.remaining = count + 1;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static SettledStore of(final Object[] promises)
+    {
+        final SettledStore store = new SettledStore(promises.length);
+        final Element inlineElement = new Element(store, true, 0);
+
+        for (int i = 0; i < promises.length; i++) {
+            final Object promise = promises[i];
+
+            try {
+                if (promise instanceof BasePromiseImpl) {
+                    final PromiseStore srcStore = ((BasePromiseImpl) promise).mutableStore();
+
+                    if (srcStore == null) {
+                        inlineElement.index = i;
+                        ((BasePromiseImpl) promise).applyResolveAction(inlineElement);
+                        continue;
+                    }
+
+                    switch (srcStore.state()) {
+                    case FULFILLED:
+                        store.settleAt(
+                            i, PromiseState.FULFILLED, MultiValue.materialize(srcStore.value), null, null, true
+                        );
+                        continue;
+
+                    case REJECTED:
+                        store.settleAt(i, PromiseState.REJECTED, null, srcStore.reason, srcStore.exception, true);
+                        continue;
+
+                    default:
+                        break;
+                    }
+                }
+
+                BaseResolver.resolveValue(promise, new Element(store, false, i));
+            } catch (final Throwable e) {
+                store.settleAt(i, PromiseState.REJECTED, null, null, e, false);
+            }
+        }
+
+        store.countDown(store.settledInline + 1);
+        return store;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void settleAt(
+        final int index,
+        final PromiseState state,
+        final Object value,
+        final Object reason,
+        final Throwable exception,
+        final boolean inline
+    ) {
+        states[index] = state;
+        values[index] = value;
+        reasons[index] = reason;
+        exceptions[index] = exception;
+
+        if (inline)
+            settledInline++;
+        else
+            countDown(1);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void countDown(final int count)
+    {
+        if (remainingUpdater.addAndGet(this, -count) == 0)
+            setFulfilled(Settlements.of(states, values, reasons, exceptions));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
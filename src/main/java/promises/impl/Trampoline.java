@@ -0,0 +1,81 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.InlineExecutor;
+import java.util.ArrayDeque;
+//---------------------------------------------------------------------------------------------------------------------
+final class Trampoline
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int MAX_INLINE_DEPTH = 32;
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final ThreadLocal<Trampoline> current = new ThreadLocal<Trampoline>() {
+        @Override protected Trampoline initialValue() { return new Trampoline(); }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private final ArrayDeque<PromiseStore> deferredStores = new ArrayDeque<PromiseStore>();
+    private int depth = 0;
+    private int inlineDepth = 0;
+    //-----------------------------------------------------------------------------------------------------------------
+    static void drain(final PromiseStore store)
+    {
+        current.get().run(store);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    static Trampoline enterInline(final InlineExecutor exec)
+    {
+        if (!exec.inExecutorThread())
+            return null;
+
+        final Trampoline trampoline = current.get();
+
+        if (trampoline.inlineDepth >= exec.maxInlineDepth())
+            return null;
+
+        trampoline.inlineDepth++;
+        return trampoline;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    final void exitInline()
+    {
+        inlineDepth--;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private void run(final PromiseStore store)
+    {
+        if (depth >= MAX_INLINE_DEPTH) {
+            deferredStores.addLast(store);
+            return;
+        }
+
+        if (depth > 0) {
+            depth++;
+
+            try {
+                store.drainPendingActions();
+            } finally {
+                depth--;
+            }
+
+            return;
+        }
+
+        depth = 1;
+
+        try {
+            store.drainPendingActions();
+        } finally {
+            try {
+                for (PromiseStore deferred; (deferred = deferredStores.pollFirst()) != null; )
+                    deferred.drainPendingActions();
+            } finally {
+                depth = 0;
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -17,25 +17,107 @@ import java.util.concurrent.TimeoutException;
 public abstract class TypedPromiseImpl<V, R> extends BasePromiseImpl implements Promise<V, R>
 {
     //-----------------------------------------------------------------------------------------------------------------
-    private static final TypedPromiseImpl<Object, Object> originPromise = new TypedPromiseImpl<Object, Object>() {
-        @Override String type() { return "TYPED-ORIGIN"; }
-        @Override public PromiseState state() { return PromiseState.FULFILLED; }
-        @Override public Object value() { return null; }
-        @Override public Object reason() { return null; }
-        @Override public Throwable exception() { return null; }
-        @Override public Object await() { return null; }
-        @Override public Object await(final long timeout, final TimeUnit unit) { return null; }
+    private static final String[] types = {
+        "TYPED-ORIGIN", "TYPED-FULFILLED", "TYPED-REJECTED", "TYPED-ALWAYS-PENDING", "TYPED-MUTABLE"
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Core extends TypedPromiseImpl<Object, Object>
+    {
+        private final int kind;
+        private final Object result;
+        private final Throwable exception;
+        private final Object store;
+
+        Core(final int kind, final Object result, final Throwable exception, final Object store) {
+            this.kind = kind;
+            this.result = result;
+            this.exception = exception;
+            this.store = store;
+        }
+
+        private PromiseStore store() {
+            return store instanceof ChainStage ? ((ChainStage<?, ?>) store).dstStore() : (PromiseStore) store;
+        }
+
+        @Override String type() { return types[kind]; }
+        @Override PromiseStore mutableStore() { return store(); }
+
+        @Override public PromiseState state() {
+            switch (kind) {
+            case MUTABLE:        return store().state();
+            case REJECTED:       return PromiseState.REJECTED;
+            case ALWAYS_PENDING: return PromiseState.PENDING;
+            default:             return PromiseState.FULFILLED;
+            }
+        }
+
+        @Override public Object value() {
+            return MultiValue.materialize(kind == MUTABLE ? store().value : kind == REJECTED ? null : result);
+        }
+        @Override public Object reason() { return kind == MUTABLE ? store().reason : kind == REJECTED ? result : null; }
+        @Override public Throwable exception() { return kind == MUTABLE ? store().exception : exception; }
+
+        @Override public Object await() throws PromiseRejectedException, InterruptedException {
+            switch (kind) {
+            case MUTABLE:        return store().await(this);
+            case REJECTED:       throw rejectedException(result, exception);
+            case ALWAYS_PENDING: return ImplUtil.waitForever();
+            default:             return MultiValue.materialize(result);
+            }
+        }
+
+        @Override public Object await(final long timeout, final TimeUnit unit)
+            throws PromiseRejectedException, InterruptedException, TimeoutException
+        {
+            switch (kind) {
+            case MUTABLE:        return store().await(this, timeout, unit);
+            case REJECTED:       throw rejectedException(result, exception);
+            case ALWAYS_PENDING: return ImplUtil.waitTimeout(timeout, unit);
+            default:             return MultiValue.materialize(result);
+            }
+        }
+
+        private <PO> PO convert(final PromiseFactory<PO> factory) {
+            switch (kind) {
+            case MUTABLE:        return store().createPromise(factory);
+            case ORIGIN:         return factory.originPromise();
+            case ALWAYS_PENDING: return factory.alwaysPendingPromise();
+            default:             return resolvedView(factory);
+            }
+        }
 
         @Override public UntypedPromiseImpl toUntypedPromise() {
-            return UntypedPromiseImpl.factory.originPromise();
+            return convert(UntypedPromiseImpl.factory);
         }
 
         @Override public LightWeightPromiseImpl<Object> toLightWeightPromise() {
-            return LightWeightPromiseImpl.factory().originPromise();
+            return convert(LightWeightPromiseImpl.factory());
+        }
+
+        @Override <PO> PO resolvedPromise(final PromiseFactory<PO> factory) {
+            switch (kind) {
+            case MUTABLE:        return null;
+            case REJECTED:       return factory.rejectedPromise(result, exception);
+            case ALWAYS_PENDING: return factory.alwaysPendingPromise();
+            default:             return factory.fulfilledPromise(result);
+            }
         }
 
         @Override void applyResolveAction(final ResolveAction resAction) {
-            resAction.setFulfilled(null);
+            switch (kind) {
+            case MUTABLE:        store().applyResolveAction(resAction); return;
+            case REJECTED:       resAction.setRejected(result, exception); return;
+            case ALWAYS_PENDING: resAction.setAlwaysPending(); return;
+            default:             resAction.setFulfilled(result);
+            }
+        }
+
+        @Override ChainStage<?, ?> settleInto(final ChainStage<?, ?> dstStage) {
+            switch (kind) {
+            case FULFILLED: return dstStage.settleFulfilled(result);
+            case REJECTED:  return dstStage.settleRejected(result, exception);
+            default:        applyResolveAction(dstStage.dstStore()); return null;
+            }
         }
 
         @Override <VO, RO> TypedPromiseImpl<VO, RO> doThen(
@@ -43,8 +125,54 @@ public abstract class TypedPromiseImpl<V, R> extends BasePromiseImpl implements
             final FR1<? super Object, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled,
             final FR2<? super Object, Throwable, ? extends Resolution<? extends VO, ? extends RO>> onRejected
         ) {
-            return FulfilledResolver.of(exec, onFulfilled)
-                .chainDstPromise(TypedPromiseImpl.<VO, RO>factory(), exec, onFulfilled, 0, null);
+            switch (kind) {
+            case MUTABLE:
+                if (store instanceof ChainStage)
+                    return ((ChainStage<?, ?>) store).doThen(
+                        TypedPromiseImpl.<VO, RO>factory(), exec,
+                        FulfilledResolver.<Object, FR2<? super Object, Throwable, ?>>of(exec, onFulfilled),
+                        onFulfilled, 0,
+                        RejectedResolver.<FR1<? super Object, ?>, Object>of(exec, onRejected),
+                        onRejected, 0
+                    );
+
+                return ((PromiseStore) store).doThen(
+                    TypedPromiseImpl.<VO, RO>factory(), exec,
+                    FulfilledResolver.<Object, FR2<? super Object, Throwable, ?>>of(exec, onFulfilled),
+                    onFulfilled, 0,
+                    RejectedResolver.<FR1<? super Object, ?>, Object>of(exec, onRejected),
+                    onRejected, 0
+                );
+
+            case REJECTED:
+                if (onRejected == null)
+                    return ImplUtil.cast(this);
+
+                return RejectedResolver.of(exec, onRejected)
+                    .chainDstPromise(TypedPromiseImpl.<VO, RO>factory(), exec, onRejected, 0, result, exception);
+
+            case ALWAYS_PENDING:
+                return TypedPromiseImpl.<VO, RO>factory().alwaysPendingPromise();
+
+            default:
+                if (kind == FULFILLED && onFulfilled == null)
+                    return ImplUtil.cast(this);
+
+                return FulfilledResolver.of(exec, onFulfilled)
+                    .chainDstPromise(TypedPromiseImpl.<VO, RO>factory(), exec, onFulfilled, 0, result);
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final TypedPromiseImpl<Object, Object> originPromise = new Core(ORIGIN, null, null, null);
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final TypedPromiseImpl<Object, Object>
+    alwaysPendingPromise = new Core(ALWAYS_PENDING, null, null, null);
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final ConstantPromises<TypedPromiseImpl<Object, Object>>
+    constantPromises = new ConstantPromises<TypedPromiseImpl<Object, Object>>() {
+        @Override TypedPromiseImpl<Object, Object> newFulfilledPromise(final Object value) {
+            return new Core(FULFILLED, value, null, null);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
@@ -53,159 +181,22 @@ public abstract class TypedPromiseImpl<V, R> extends BasePromiseImpl implements
         @Override public TypedPromiseImpl<Object, Object> originPromise() { return originPromise; }
 
         @Override public TypedPromiseImpl<Object, Object> fulfilledPromise(final Object value) {
-            return new TypedPromiseImpl<Object, Object>() {
-                @Override String type() { return "TYPED-FULFILLED"; }
-                @Override public PromiseState state() { return PromiseState.FULFILLED; }
-                @Override public Object value() { return value; }
-                @Override public Object reason() { return null; }
-                @Override public Throwable exception() { return null; }
-                @Override public Object await() { return value; }
-                @Override public Object await(final long timeout, final TimeUnit unit) { return value; }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return UntypedPromiseImpl.factory.fulfilledPromise(value);
-                }
-
-                @Override public LightWeightPromiseImpl<Object> toLightWeightPromise() {
-                    return LightWeightPromiseImpl.factory().fulfilledPromise(value);
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setFulfilled(value);
-                }
-
-                @Override <VO, RO> TypedPromiseImpl<VO, RO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled,
-                    final FR2<? super Object, Throwable, ? extends Resolution<? extends VO, ? extends RO>> onRejected
-                ) {
-                    return FulfilledResolver.of(exec, onFulfilled)
-                        .chainDstPromise(TypedPromiseImpl.<VO, RO>factory(), exec, onFulfilled, 0, value);
-                }
-            };
+            return constantPromises.fulfilledPromise(value);
         }
 
         @Override public TypedPromiseImpl<Object, Object>
         rejectedPromise(final Object reason, final Throwable exception) {
-            return new TypedPromiseImpl<Object, Object>() {
-                @Override String type() { return "TYPED-REJECTED"; }
-                @Override public PromiseState state() { return PromiseState.REJECTED; }
-                @Override public Object value() { return null; }
-                @Override public Object reason() { return reason; }
-                @Override public Throwable exception() { return exception; }
-
-                @Override public Object await() throws PromiseRejectedException {
-                    throw new PromiseRejectedException(this, reason, exception);
-                }
-
-                @Override public Object
-                await(final long timeout, final TimeUnit unit) throws PromiseRejectedException {
-                    throw new PromiseRejectedException(this, reason, exception);
-                }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return UntypedPromiseImpl.factory.rejectedPromise(reason, exception);
-                }
-
-                @Override public LightWeightPromiseImpl<Object> toLightWeightPromise() {
-                    return LightWeightPromiseImpl.factory().rejectedPromise(reason, exception);
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setRejected(reason, exception);
-                }
-
-                @Override <VO, RO> TypedPromiseImpl<VO, RO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled,
-                    final FR2<? super Object, Throwable, ? extends Resolution<? extends VO, ? extends RO>> onRejected
-                ) {
-                    return RejectedResolver.of(exec, onRejected)
-                        .chainDstPromise(TypedPromiseImpl.<VO, RO>factory(), exec, onRejected, 0, reason, exception);
-                }
-            };
+            return new Core(REJECTED, reason, exception, null);
         }
 
-        @Override public TypedPromiseImpl<Object, Object> alwaysPendingPromise() {
-            return new TypedPromiseImpl<Object, Object>() {
-                @Override String type() { return "TYPED-ALWAYS-PENDING"; }
-                @Override public PromiseState state() { return PromiseState.PENDING; }
-                @Override public Object value() { return null; }
-                @Override public Object reason() { return null; }
-                @Override public Throwable exception() { return null; }
-                @Override public Object await() throws InterruptedException { return ImplUtil.waitForever(); }
-
-                @Override public Object
-                await(final long timeout, final TimeUnit unit) throws InterruptedException, TimeoutException {
-                    return ImplUtil.waitTimeout(timeout, unit);
-                }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return UntypedPromiseImpl.factory.alwaysPendingPromise();
-                }
-
-                @Override public LightWeightPromiseImpl<Object> toLightWeightPromise() {
-                    return LightWeightPromiseImpl.factory().alwaysPendingPromise();
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setAlwaysPending();
-                }
-
-                @Override <VO, RO> TypedPromiseImpl<VO, RO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled,
-                    final FR2<? super Object, Throwable, ? extends Resolution<? extends VO, ? extends RO>> onRejected
-                ) {
-                    return TypedPromiseImpl.<VO, RO>factory().alwaysPendingPromise();
-                }
-            };
-        }
+        @Override public TypedPromiseImpl<Object, Object> alwaysPendingPromise() { return alwaysPendingPromise; }
 
         @Override public TypedPromiseImpl<Object, Object> mutablePromise(final PromiseStore store) {
-            return new TypedPromiseImpl<Object, Object>() {
-                @Override String type() { return "TYPED-MUTABLE"; }
-                @Override public PromiseState state() { return store.state; }
-                @Override public Object value() { return store.value; }
-                @Override public Object reason() { return store.reason; }
-                @Override public Throwable exception() { return store.exception; }
-
-                @Override public Object await() throws PromiseRejectedException, InterruptedException {
-                    return store.await(this);
-                }
-
-                @Override public Object await(final long timeout, final TimeUnit unit)
-                    throws PromiseRejectedException, InterruptedException, TimeoutException
-                {
-                    return store.await(this, timeout, unit);
-                }
-
-                @Override public UntypedPromiseImpl toUntypedPromise() {
-                    return store.createPromise(UntypedPromiseImpl.factory);
-                }
-
-                @Override public LightWeightPromiseImpl<Object> toLightWeightPromise() {
-                    return store.createPromise(LightWeightPromiseImpl.factory());
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    store.applyResolveAction(resAction);
-                }
+            return new Core(MUTABLE, null, null, store);
+        }
 
-                @Override <VO, RO> TypedPromiseImpl<VO, RO> doThen(
-                    final Executor exec,
-                    final FR1<? super Object, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled,
-                    final FR2<? super Object, Throwable, ? extends Resolution<? extends VO, ? extends RO>> onRejected
-                ) {
-                    return store.doThen(
-                        TypedPromiseImpl.<VO, RO>factory(), exec,
-                        FulfilledResolver.<Object, FR2<? super Object, Throwable, ?>>of(exec, onFulfilled),
-                        onFulfilled, 0,
-                        RejectedResolver.<FR1<? super Object, ?>, Object>of(exec, onRejected),
-                        onRejected, 0
-                    );
-                }
-            };
+        @Override TypedPromiseImpl<Object, Object> chainedPromise(final ChainStage<?, ?> stage) {
+            return new Core(MUTABLE, null, null, stage);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
@@ -16,175 +16,185 @@ import java.util.concurrent.TimeoutException;
 public abstract class UntypedPromiseImpl extends BasePromiseImpl implements Promise
 {
     //-----------------------------------------------------------------------------------------------------------------
-    private static final UntypedPromiseImpl originPromise = new UntypedPromiseImpl()
+    private static final String[] types = {
+        "UNTYPED-ORIGIN", "UNTYPED-FULFILLED", "UNTYPED-REJECTED", "UNTYPED-ALWAYS-PENDING", "UNTYPED-MUTABLE"
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Core extends UntypedPromiseImpl
     {
-        @Override String type() { return "UNTYPED-ORIGIN"; }
-        @Override public PromiseState state() { return PromiseState.FULFILLED; }
-        @Override public <V> V value() { return null; }
-        @Override public <R> R reason() { return null; }
-        @Override public Throwable exception() { return null; }
-        @Override public <V> V await() { return null; }
-        @Override public <V> V await(final long timeout, final TimeUnit unit) { return null; }
+        private final int kind;
+        private final Object result;
+        private final Throwable exception;
+        private final Object store;
+
+        Core(final int kind, final Object result, final Throwable exception, final Object store) {
+            this.kind = kind;
+            this.result = result;
+            this.exception = exception;
+            this.store = store;
+        }
 
-        @Override public <V, R> TypedPromiseImpl<V, R> toTypedPromise() {
-            return TypedPromiseImpl.<V, R>factory().originPromise();
+        private PromiseStore store() {
+            return store instanceof ChainStage ? ((ChainStage<?, ?>) store).dstStore() : (PromiseStore) store;
         }
 
-        @Override public <V> LightWeightPromiseImpl<V> toLightWeightPromise() {
-            return LightWeightPromiseImpl.<V>factory().originPromise();
+        @Override String type() { return types[kind]; }
+        @Override PromiseStore mutableStore() { return store(); }
+
+        @Override public PromiseState state() {
+            switch (kind) {
+            case MUTABLE:        return store().state();
+            case REJECTED:       return PromiseState.REJECTED;
+            case ALWAYS_PENDING: return PromiseState.PENDING;
+            default:             return PromiseState.FULFILLED;
+            }
         }
 
-        @Override void applyResolveAction(final ResolveAction resAction) { resAction.setFulfilled(null); }
+        @Override public <V> V value() {
+            final Object value = kind == MUTABLE ? store().value : kind == REJECTED ? null : result;
+            return ImplUtil.cast(MultiValue.materialize(value));
+        }
 
-        @Override <V, R> UntypedPromiseImpl
-        doThen(final Executor exec, final FR1<V, ?> onFulfilled, final FR2<R, Throwable, ?> onRejected) {
-            final FulfilledResolver<FR1<? super V, ?>, ?> resolver = FulfilledResolver.of(exec, onFulfilled);
-            return resolver.chainDstPromise(factory, exec, onFulfilled, 0, null);
+        @Override public <R> R reason() {
+            return ImplUtil.cast(kind == MUTABLE ? store().reason : kind == REJECTED ? result : null);
         }
-    };
-    //-----------------------------------------------------------------------------------------------------------------
-    public static PromiseFactory<UntypedPromiseImpl> factory = new PromiseFactory<UntypedPromiseImpl>() {
-        @Override public UntypedPromiseImpl originPromise() { return originPromise; }
 
-        @Override public UntypedPromiseImpl fulfilledPromise(final Object value) {
-            return new UntypedPromiseImpl() {
-                @Override String type() { return "UNTYPED-FULFILLED"; }
-                @Override public PromiseState state() { return PromiseState.FULFILLED; }
-                @Override public <V> V value() { return ImplUtil.cast(value); }
-                @Override public <R> R reason() { return null; }
-                @Override public Throwable exception() { return null; }
-                @Override public <V> V await() { return ImplUtil.cast(value); }
-                @Override public <V> V await(final long timeout, final TimeUnit unit) { return ImplUtil.cast(value); }
+        @Override public Throwable exception() { return kind == MUTABLE ? store().exception : exception; }
 
-                @Override public <V, R> TypedPromiseImpl<V, R> toTypedPromise() {
-                    return TypedPromiseImpl.<V, R>factory().fulfilledPromise(value);
-                }
+        @Override public <V> V await() throws PromiseRejectedException, InterruptedException {
+            switch (kind) {
+            case MUTABLE:        return ImplUtil.cast(store().await(this));
+            case REJECTED:       throw rejectedException(result, exception);
+            case ALWAYS_PENDING: return ImplUtil.waitForever();
+            default:             return ImplUtil.cast(MultiValue.materialize(result));
+            }
+        }
 
-                @Override public <V> LightWeightPromiseImpl<V> toLightWeightPromise() {
-                    return LightWeightPromiseImpl.<V>factory().fulfilledPromise(value);
-                }
+        @Override public <V> V await(final long timeout, final TimeUnit unit)
+            throws PromiseRejectedException, InterruptedException, TimeoutException
+        {
+            switch (kind) {
+            case MUTABLE:        return ImplUtil.cast(store().await(this, timeout, unit));
+            case REJECTED:       throw rejectedException(result, exception);
+            case ALWAYS_PENDING: return ImplUtil.waitTimeout(timeout, unit);
+            default:             return ImplUtil.cast(MultiValue.materialize(result));
+            }
+        }
 
-                @Override void applyResolveAction(final ResolveAction resAction) { resAction.setFulfilled(value); }
+        private <PO> PO convert(final PromiseFactory<PO> factory) {
+            switch (kind) {
+            case MUTABLE:        return store().createPromise(factory);
+            case ORIGIN:         return factory.originPromise();
+            case ALWAYS_PENDING: return factory.alwaysPendingPromise();
+            default:             return resolvedView(factory);
+            }
+        }
 
-                @Override <V, R> UntypedPromiseImpl
-                doThen(final Executor exec, final FR1<V, ?> onFulfilled, final FR2<R, Throwable, ?> onRejected) {
-                    final FulfilledResolver<FR1<? super V, ?>, ?> resolver = FulfilledResolver.of(exec, onFulfilled);
-                    return resolver.chainDstPromise(factory, exec, onFulfilled, 0, value);
-                }
-            };
+        @Override public <V, R> TypedPromiseImpl<V, R> toTypedPromise() {
+            return convert(TypedPromiseImpl.<V, R>factory());
         }
 
-        @Override public UntypedPromiseImpl rejectedPromise(final Object reason, final Throwable exception) {
-            return new UntypedPromiseImpl() {
-                @Override String type() { return "UNTYPED-REJECTED"; }
-                @Override public PromiseState state() { return PromiseState.REJECTED; }
-                @Override public <V> V value() { return null; }
-                @Override public <R> R reason() { return ImplUtil.cast(reason); }
-                @Override public Throwable exception() { return exception; }
+        @Override public <V> LightWeightPromiseImpl<V> toLightWeightPromise() {
+            return convert(LightWeightPromiseImpl.<V>factory());
+        }
 
-                @Override public <V> V await() throws PromiseRejectedException {
-                    throw new PromiseRejectedException(this, reason, exception);
-                }
+        @Override <PO> PO resolvedPromise(final PromiseFactory<PO> factory) {
+            switch (kind) {
+            case MUTABLE:        return null;
+            case REJECTED:       return factory.rejectedPromise(result, exception);
+            case ALWAYS_PENDING: return factory.alwaysPendingPromise();
+            default:             return factory.fulfilledPromise(result);
+            }
+        }
 
-                @Override public <V> V await(final long timeout, final TimeUnit unit) throws PromiseRejectedException {
-                    throw new PromiseRejectedException(this, reason, exception);
-                }
+        @Override void applyResolveAction(final ResolveAction resAction) {
+            switch (kind) {
+            case MUTABLE:        store().applyResolveAction(resAction); return;
+            case REJECTED:       resAction.setRejected(result, exception); return;
+            case ALWAYS_PENDING: resAction.setAlwaysPending(); return;
+            default:             resAction.setFulfilled(result);
+            }
+        }
 
-                @Override public <V, R> TypedPromiseImpl<V, R> toTypedPromise() {
-                    return TypedPromiseImpl.<V, R>factory().rejectedPromise(reason, exception);
-                }
+        @Override ChainStage<?, ?> settleInto(final ChainStage<?, ?> dstStage) {
+            switch (kind) {
+            case FULFILLED: return dstStage.settleFulfilled(result);
+            case REJECTED:  return dstStage.settleRejected(result, exception);
+            default:        applyResolveAction(dstStage.dstStore()); return null;
+            }
+        }
 
-                @Override public <V> LightWeightPromiseImpl<V> toLightWeightPromise() {
-                    return LightWeightPromiseImpl.<V>factory().rejectedPromise(reason, exception);
-                }
+        @Override <V, R> UntypedPromiseImpl
+        doThen(final Executor exec, final FR1<V, ?> onFulfilled, final FR2<R, Throwable, ?> onRejected) {
+            switch (kind) {
+            case MUTABLE:
+                if (store instanceof ChainStage)
+                    return ((ChainStage<?, ?>) store).doThen(
+                        factory, exec,
+                        FulfilledResolver.<V, FR2<? super R, Throwable, ?>>of(exec, onFulfilled), onFulfilled, 0,
+                        RejectedResolver.<FR1<? super V, ?>, R>of(exec, onRejected), onRejected, 0
+                    );
 
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setRejected(reason, exception);
-                }
+                return ((PromiseStore) store).doThen(
+                    factory, exec,
+                    FulfilledResolver.<V, FR2<? super R, Throwable, ?>>of(exec, onFulfilled), onFulfilled, 0,
+                    RejectedResolver.<FR1<? super V, ?>, R>of(exec, onRejected), onRejected, 0
+                );
 
-                @Override <V, R> UntypedPromiseImpl
-                doThen(final Executor exec, final FR1<V, ?> onFulfilled, final FR2<R, Throwable, ?> onRejected) {
-                    final RejectedResolver<?, FR2<? super R, Throwable, ?>>
-                        resolver = RejectedResolver.of(exec, onRejected);
+            case REJECTED:
+                if (onRejected == null)
+                    return this;
 
-                    return resolver.chainDstPromise(factory, exec, onRejected, 0, reason, exception);
-                }
-            };
-        }
+                final RejectedResolver<?, FR2<? super R, Throwable, ?>>
+                    rejResolver = RejectedResolver.of(exec, onRejected);
 
-        @Override public UntypedPromiseImpl alwaysPendingPromise() {
-            return new UntypedPromiseImpl() {
-                @Override String type() { return "UNTYPED-ALWAYS-PENDING"; }
-                @Override public PromiseState state() { return PromiseState.PENDING; }
-                @Override public <V> V value() { return null; }
-                @Override public <R> R reason() { return null; }
-                @Override public Throwable exception() { return null; }
+                return rejResolver.chainDstPromise(factory, exec, onRejected, 0, result, exception);
 
-                @Override public <V> V await() throws InterruptedException { return ImplUtil.waitForever(); }
+            case ALWAYS_PENDING:
+                return alwaysPendingPromise;
 
-                @Override public <V> V
-                await(final long timeout, final TimeUnit unit) throws InterruptedException, TimeoutException {
-                    return ImplUtil.waitTimeout(timeout, unit);
-                }
+            default:
+                if (kind == FULFILLED && onFulfilled == null)
+                    return this;
 
-                @Override public <V, R> TypedPromiseImpl<V, R> toTypedPromise() {
-                    return TypedPromiseImpl.<V, R>factory().alwaysPendingPromise();
-                }
+                final FulfilledResolver<FR1<? super V, ?>, ?>
+                    fulResolver = FulfilledResolver.of(exec, onFulfilled);
 
-                @Override public <V> LightWeightPromiseImpl<V> toLightWeightPromise() {
-                    return LightWeightPromiseImpl.<V>factory().alwaysPendingPromise();
-                }
+                return fulResolver.chainDstPromise(factory, exec, onFulfilled, 0, result);
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final UntypedPromiseImpl originPromise = new Core(ORIGIN, null, null, null);
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final UntypedPromiseImpl alwaysPendingPromise = new Core(ALWAYS_PENDING, null, null, null);
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final ConstantPromises<UntypedPromiseImpl>
+    constantPromises = new ConstantPromises<UntypedPromiseImpl>() {
+        @Override UntypedPromiseImpl newFulfilledPromise(final Object value) {
+            return new Core(FULFILLED, value, null, null);
+        }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    public static PromiseFactory<UntypedPromiseImpl> factory = new PromiseFactory<UntypedPromiseImpl>() {
+        @Override public UntypedPromiseImpl originPromise() { return originPromise; }
 
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    resAction.setAlwaysPending();
-                }
+        @Override public UntypedPromiseImpl fulfilledPromise(final Object value) {
+            return constantPromises.fulfilledPromise(value);
+        }
 
-                @Override <V, R> UntypedPromiseImpl
-                doThen(final Executor exec, final FR1<V, ?> onFulfilled, final FR2<R, Throwable, ?> onRejected) {
-                    return factory.alwaysPendingPromise();
-                }
-            };
+        @Override public UntypedPromiseImpl rejectedPromise(final Object reason, final Throwable exception) {
+            return new Core(REJECTED, reason, exception, null);
         }
 
+        @Override public UntypedPromiseImpl alwaysPendingPromise() { return alwaysPendingPromise; }
+
         @Override public UntypedPromiseImpl mutablePromise(final PromiseStore store) {
-            return new UntypedPromiseImpl() {
-                @Override String type() { return "UNTYPED-MUTABLE"; }
-                @Override public PromiseState state() { return store.state; }
-                @Override public <V> V value() { return ImplUtil.cast(store.value); }
-                @Override public <R> R reason() { return ImplUtil.cast(store.reason); }
-                @Override public Throwable exception() { return store.exception; }
-
-                @Override public <V> V await() throws PromiseRejectedException, InterruptedException {
-                    return ImplUtil.cast(store.await(this));
-                }
-
-                @Override public <V> V await(final long timeout, final TimeUnit unit)
-                    throws PromiseRejectedException, InterruptedException, TimeoutException
-                {
-                    return ImplUtil.cast(store.await(this, timeout, unit));
-                }
-
-                @Override public <V, R> TypedPromiseImpl<V, R> toTypedPromise() {
-                    return store.createPromise(TypedPromiseImpl.<V, R>factory());
-                }
-
-                @Override public <V> LightWeightPromiseImpl<V> toLightWeightPromise() {
-                    return store.createPromise(LightWeightPromiseImpl.<V>factory());
-                }
-
-                @Override void applyResolveAction(final ResolveAction resAction) {
-                    store.applyResolveAction(resAction);
-                }
-
-                @Override <V, R> UntypedPromiseImpl
-                doThen(final Executor exec, final FR1<V, ?> onFulfilled, final FR2<R, Throwable, ?> onRejected) {
-                    return store.doThen(
-                        factory, exec,
-                        FulfilledResolver.<V, FR2<? super R, Throwable, ?>>of(exec, onFulfilled), onFulfilled, 0,
-                        RejectedResolver.<FR1<? super V, ?>, R>of(exec, onRejected), onRejected, 0
-                    );
-                }
-            };
+            return new Core(MUTABLE, null, null, store);
+        }
+
+        @Override UntypedPromiseImpl chainedPromise(final ChainStage<?, ?> stage) {
+            return new Core(MUTABLE, null, null, stage);
         }
     };
     //-----------------------------------------------------------------------------------------------------------------
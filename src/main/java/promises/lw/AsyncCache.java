@@ -0,0 +1,71 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.lw;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines caches of promises loaded asynchronously by keys.
+ * <p/>
+ * Concurrent lookups of the same key share a single load, while each lookup of a pending entry gets its own promise, so
+ * that cancelling one of them does not affect the others. Entries whose loads are rejected are removed from the cache,
+ * so that the next lookup loads again. Cache keys must not be {@code null}.
+ *
+ * @param <K> Type of cache keys
+ * @param <V> Type of cached values
+ */
+public interface AsyncCache<K, V>
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the promise cached for the specified key, or starts loading the key if it is not cached or expired.
+     *
+     * @param key The cache key
+     * @return The promise of the cached value
+     */
+    public abstract P<V> get(final K key);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the promise cached for the specified key, or {@code null} if it is not cached or expired, without
+     * starting a load.
+     *
+     * @param key The cache key
+     * @return The promise of the cached value, or {@code null}
+     */
+    public abstract P<V> getIfPresent(final K key);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Removes the entry of the specified key. A pending load of the key still resolves its promise, but is no longer
+     * shared by later lookups.
+     *
+     * @param key The cache key
+     */
+    public abstract void invalidate(final K key);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Removes all entries.
+     */
+    public abstract void invalidateAll();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Removes the expired entries, which are otherwise removed only when they are looked up or evicted.
+     */
+    public abstract void cleanUp();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of entries, including the expired entries not removed yet.
+     *
+     * @return The number of entries
+     */
+    public abstract int size();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return The cache statistics
+     */
+    public abstract CacheStats stats();
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
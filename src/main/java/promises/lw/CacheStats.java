@@ -0,0 +1,152 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.lw;
+import java.io.Serializable;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines a snapshot of the statistics of an {@link AsyncCache}.
+ */
+public final class CacheStats implements Serializable
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+    private final long evictionCount;
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a snapshot of cache statistics.
+     *
+     * @param hitCount The number of lookups finding a cached or loading entry
+     * @param missCount The number of lookups starting a new load, or finding no entry
+     * @param loadSuccessCount The number of loads fulfilled
+     * @param loadFailureCount The number of loads rejected
+     * @param totalLoadTime The total time spent by the finished loads, in nanoseconds
+     * @param evictionCount The number of entries evicted because of the cache capacity
+     * @return The snapshot
+     */
+    public static CacheStats of(
+        final long hitCount,
+        final long missCount,
+        final long loadSuccessCount,
+        final long loadFailureCount,
+        final long totalLoadTime,
+        final long evictionCount
+    ) {
+        return new CacheStats(hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTime, evictionCount);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private CacheStats(
+        final long hitCount,
+        final long missCount,
+        final long loadSuccessCount,
+        final long loadFailureCount,
+        final long totalLoadTime,
+        final long evictionCount
+    ) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of lookups finding a cached entry, including the entries still being loaded.
+     *
+     * @return The hit count
+     */
+    public final long hitCount()
+    {
+        return hitCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of lookups finding no cached entry, or only an expired one.
+     *
+     * @return The miss count
+     */
+    public final long missCount()
+    {
+        return missCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the ratio of hits to all lookups, or {@code 1.0} if there is no lookup.
+     *
+     * @return The hit rate
+     */
+    public final double hitRate()
+    {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of loads whose promises are fulfilled.
+     *
+     * @return The load success count
+     */
+    public final long loadSuccessCount()
+    {
+        return loadSuccessCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of loads whose promises are rejected, including the loads throwing exceptions.
+     *
+     * @return The load failure count
+     */
+    public final long loadFailureCount()
+    {
+        return loadFailureCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the total time from starting the finished loads until their promises are resolved, in nanoseconds.
+     *
+     * @return The total load time
+     */
+    public final long totalLoadTime()
+    {
+        return totalLoadTime;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the average time of the finished loads in nanoseconds, or {@code 0.0} if no load is finished.
+     *
+     * @return The average load penalty
+     */
+    public final double averageLoadPenalty()
+    {
+        final long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the number of entries evicted because the cache capacity is exceeded.
+     *
+     * @return The eviction count
+     */
+    public final long evictionCount()
+    {
+        return evictionCount;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @Override
+    public final String toString()
+    {
+        return String.format(
+            "CacheStats{hits=%d, misses=%d, loadSuccesses=%d, loadFailures=%d, totalLoadTime=%d, evictions=%d}",
+            hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTime, evictionCount
+        );
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
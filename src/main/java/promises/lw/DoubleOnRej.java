@@ -0,0 +1,24 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.lw;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines {@code onRejected} callbacks recovering from rejections with unboxed {@code double} values.
+ */
+public interface DoubleOnRej
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Calls this function.
+     *
+     * @param exception The rejected exception
+     * @return The recovered value
+     * @throws Throwable The throwable thrown by this execution
+     */
+    double call(final Throwable exception) throws Throwable;
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,117 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.lw;
+import promises.PromiseRejectedException;
+import promises.PromiseState;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines promise objects holding unboxed {@code double} fulfilled values. Chains of {@code then} on such promises keep
+ * the values unboxed; {@link #toP()} bridges to {@link P} by boxing.
+ */
+public interface DoubleP
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the state of this promise.
+     *
+     * @return The promise state
+     */
+    public abstract PromiseState state();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the fulfilled value of this promise if in the {@code FULFILLED} state, or {@code 0} if in other states.
+     *
+     * @return The fulfilled value
+     */
+    public abstract double value();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the rejected exception of this promise if in the {@code REJECTED} state, or {@code null} if in other
+     * states.
+     *
+     * @return The rejected exception
+     */
+    public abstract Throwable exception();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Waits until this promise is resolved by returning the fulfilled value when the state becomes {@code FULFILLED}
+     * or throwing {@link PromiseRejectedException} when the state becomes {@code REJECTED}.
+     *
+     * @return The fulfilled value when the state of this promise becomes {@code FULFILLED}
+     * @throws PromiseRejectedException If the state of this promise becomes {@code REJECTED}
+     * @throws InterruptedException If the current thread is interrupted while waiting
+     */
+    public abstract double await() throws PromiseRejectedException, InterruptedException;
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Waits until this promise is resolved by returning the fulfilled value when the state becomes {@code FULFILLED}
+     * or throwing {@link PromiseRejectedException} when the state becomes {@code REJECTED}, or until the specified
+     * timeout is reached by throwing {@link TimeoutException}.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The time unit of the {@code timeout} argument
+     * @return The fulfilled value when the state of this promise becomes {@code FULFILLED}
+     * @throws PromiseRejectedException If the state of this promise becomes {@code REJECTED}
+     * @throws InterruptedException If the current thread is interrupted while waiting
+     * @throws TimeoutException If the specified timeout is reached
+     */
+    public abstract double await(final long timeout, final TimeUnit unit)
+        throws PromiseRejectedException, InterruptedException, TimeoutException;
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Returns the light-weight promise representing this promise, which holds the boxed fulfilled value.
+     *
+     * @return The boxed light-weight promise
+     */
+    public abstract P<Double> toP();
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The {@code then} method by using the specified executor. The returned promise is rejected with the exception
+     * thrown by the callback, or with the rejected exception of this promise.
+     *
+     * @param exec The executor on which the callback is executed
+     * @param onFulfilled The {@code onFulfilled} callback being invoked when this promise is fulfilled
+     * @return The next chained promise
+     */
+    public abstract DoubleP then(final Executor exec, final DoubleFR1 onFulfilled);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The {@code then} method by using the current-thread executor. The returned promise is rejected with the
+     * exception thrown by the callback, or with the rejected exception of this promise.
+     *
+     * @param onFulfilled The {@code onFulfilled} callback being invoked when this promise is fulfilled
+     * @return The next chained promise
+     */
+    public abstract DoubleP then(final DoubleFR1 onFulfilled);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The {@code then} method by using the specified executor. The returned promise is fulfilled with the value
+     * returned by the invoked callback, or rejected with the exception thrown by it. A {@code null} callback passes
+     * the fulfilled value or the rejected exception of this promise through.
+     *
+     * @param exec The executor on which the callbacks are executed
+     * @param onFulfilled The {@code onFulfilled} callback being invoked when this promise is fulfilled
+     * @param onRejected The {@code onRejected} callback being invoked when this promise is rejected
+     * @return The next chained promise
+     */
+    public abstract DoubleP then(final Executor exec, final DoubleFR1 onFulfilled, final DoubleOnRej onRejected);
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * The {@code then} method by using the current-thread executor. The returned promise is fulfilled with the value
+     * returned by the invoked callback, or rejected with the exception thrown by it. A {@code null} callback passes
+     * the fulfilled value or the rejected exception of this promise through.
+     *
+     * @param onFulfilled The {@code onFulfilled} callback being invoked when this promise is fulfilled
+     * @param onRejected The {@code onRejected} callback being invoked when this promise is rejected
+     * @return The next chained promise
+     */
+    public abstract DoubleP then(final DoubleFR1 onFulfilled, final DoubleOnRej onRejected);
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
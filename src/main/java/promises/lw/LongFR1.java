@@ -0,0 +1,24 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.lw;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Defines single-argument functions taking and returning unboxed {@code long} values.
+ */
+public interface LongFR1
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Calls this function.
+     *
+     * @param a1 The 1st argument
+     * @return The returned value
+     * @throws Throwable The throwable thrown by this execution
+     */
+    long call(final long a1) throws Throwable;
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
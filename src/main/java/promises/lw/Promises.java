@@ -5,6 +5,7 @@
 //---------------------------------------------------------------------------------------------------------------------
 package promises.lw;
 import promises.FR0;
+import promises.FR1;
 import promises.FR2;
 import promises.FR3;
 import promises.FR4;
@@ -13,7 +14,14 @@ import promises.M2;
 import promises.M3;
 import promises.M4;
 import promises.M5;
+import promises.Settlements;
+import promises.impl.ImplUtil;
 import promises.impl.LightWeightPromiseImpl;
+import promises.impl.MultiCallback;
+import promises.impl.MultiValue;
+import promises.impl.PrimitivePromiseImpl;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 //---------------------------------------------------------------------------------------------------------------------
 /**
@@ -44,7 +52,7 @@ public class Promises
      */
     public static <V1, V2> RV<M2<V1, V2>> v(final V1 v1, final V2 v2)
     {
-        return v(M2.of(v1, v2));
+        return ImplUtil.cast(MultiValue.of(v1, v2));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -57,7 +65,7 @@ public class Promises
      */
     public static <V1, V2, V3> RV<M3<V1, V2, V3>> v(final V1 v1, final V2 v2, final V3 v3)
     {
-        return v(M3.of(v1, v2, v3));
+        return ImplUtil.cast(MultiValue.of(v1, v2, v3));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -72,7 +80,7 @@ public class Promises
      */
     public static <V1, V2, V3, V4> RV<M4<V1, V2, V3, V4>> v(final V1 v1, final V2 v2, final V3 v3, final V4 v4)
     {
-        return v(M4.of(v1, v2, v3, v4));
+        return ImplUtil.cast(MultiValue.of(v1, v2, v3, v4));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -88,7 +96,7 @@ public class Promises
     public static <V1, V2, V3, V4, V5> RV<M5<V1, V2, V3, V4, V5>>
     v(final V1 v1, final V2 v2, final V3 v3, final V4 v4, final V5 v5)
     {
-        return v(M5.of(v1, v2, v3, v4, v5));
+        return ImplUtil.cast(MultiValue.of(v1, v2, v3, v4, v5));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -121,7 +129,7 @@ public class Promises
      */
     public static <V1, V2> P<M2<V1, V2>> pf(final V1 v1, final V2 v2)
     {
-        return pf(M2.of(v1, v2));
+        return LightWeightPromiseImpl.<M2<V1, V2>>factory().fulfilledPromise(MultiValue.of(v1, v2));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -134,7 +142,7 @@ public class Promises
      */
     public static <V1, V2, V3> P<M3<V1, V2, V3>> pf(final V1 v1, final V2 v2, final V3 v3)
     {
-        return pf(M3.of(v1, v2, v3));
+        return LightWeightPromiseImpl.<M3<V1, V2, V3>>factory().fulfilledPromise(MultiValue.of(v1, v2, v3));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -148,7 +156,7 @@ public class Promises
      */
     public static <V1, V2, V3, V4> P<M4<V1, V2, V3, V4>> pf(final V1 v1, final V2 v2, final V3 v3, final V4 v4)
     {
-        return pf(M4.of(v1, v2, v3, v4));
+        return LightWeightPromiseImpl.<M4<V1, V2, V3, V4>>factory().fulfilledPromise(MultiValue.of(v1, v2, v3, v4));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -164,7 +172,8 @@ public class Promises
     public static <V1, V2, V3, V4, V5> P<M5<V1, V2, V3, V4, V5>>
     pf(final V1 v1, final V2 v2, final V3 v3, final V4 v4, final V5 v5)
     {
-        return pf(M5.of(v1, v2, v3, v4, v5));
+        return LightWeightPromiseImpl.<M5<V1, V2, V3, V4, V5>>factory()
+            .fulfilledPromise(MultiValue.of(v1, v2, v3, v4, v5));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -178,6 +187,78 @@ public class Promises
         return LightWeightPromiseImpl.<V>factory().rejectedPromise(null, e);
     }
     //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new fulfilled promise holding an unboxed {@code int} value.
+     *
+     * @param v The fulfilled value of the new promise
+     * @return The created promise
+     */
+    public static IntP pfInt(final int v)
+    {
+        return PrimitivePromiseImpl.intPromise(v);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new fulfilled promise holding an unboxed {@code long} value.
+     *
+     * @param v The fulfilled value of the new promise
+     * @return The created promise
+     */
+    public static LongP pfLong(final long v)
+    {
+        return PrimitivePromiseImpl.longPromise(v);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new fulfilled promise holding an unboxed {@code double} value.
+     *
+     * @param v The fulfilled value of the new promise
+     * @return The created promise
+     */
+    public static DoubleP pfDouble(final double v)
+    {
+        return PrimitivePromiseImpl.doublePromise(v);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise holding the unboxed {@code int} value of the specified promise once it is fulfilled. The
+     * new promise is rejected if the specified promise is rejected or fulfilled with {@code null}, or with
+     * {@link promises.TypeErrorException} if the fulfilled value cannot be widened to {@code int} without loss.
+     *
+     * @param p The promise whose fulfilled value is unboxed
+     * @return The created promise
+     */
+    public static IntP unboxInt(final P<? extends Number> p)
+    {
+        return PrimitivePromiseImpl.unboxedInt(p);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise holding the unboxed {@code long} value of the specified promise once it is fulfilled. The
+     * new promise is rejected if the specified promise is rejected or fulfilled with {@code null}, or with
+     * {@link promises.TypeErrorException} if the fulfilled value cannot be widened to {@code long} without loss.
+     *
+     * @param p The promise whose fulfilled value is unboxed
+     * @return The created promise
+     */
+    public static LongP unboxLong(final P<? extends Number> p)
+    {
+        return PrimitivePromiseImpl.unboxedLong(p);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise holding the unboxed {@code double} value of the specified promise once it is fulfilled. The
+     * new promise is rejected if the specified promise is rejected or fulfilled with {@code null}, or with
+     * {@link promises.TypeErrorException} if the fulfilled value cannot be widened to {@code double} without loss.
+     *
+     * @param p The promise whose fulfilled value is unboxed
+     * @return The created promise
+     */
+    public static DoubleP unboxDouble(final P<? extends Number> p)
+    {
+        return PrimitivePromiseImpl.unboxedDouble(p);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     /**
      * Wraps the specified dual-argument {@code onFulfilled} callback to a single aggregated-argument callback.
      *
@@ -187,14 +268,7 @@ public class Promises
     public static <VI1, VI2, VO> OnFul<M2<VI1, VI2>, VO>
     wf(final FR2<? super VI1, ? super VI2, ? extends RV<? extends VO>> onFulfilled)
     {
-        return new OnFul<M2<VI1, VI2>, VO>() {
-            @Override public RV<? extends VO> call(final M2<VI1, VI2> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2);
-                else
-                    return onFulfilled.call(null, null);
-            }
-        };
+        return MultiCallback.lightWeight(2, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -206,14 +280,7 @@ public class Promises
     public static <VI1, VI2, VI3, VO> OnFul<M3<VI1, VI2, VI3>, VO>
     wf(final FR3<? super VI1, ? super VI2, ? super VI3, ? extends RV<? extends VO>> onFulfilled)
     {
-        return new OnFul<M3<VI1, VI2, VI3>, VO>() {
-            @Override public RV<? extends VO> call(final M3<VI1, VI2, VI3> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3);
-                else
-                    return onFulfilled.call(null, null, null);
-            }
-        };
+        return MultiCallback.lightWeight(3, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -225,14 +292,7 @@ public class Promises
     public static <VI1, VI2, VI3, VI4, VO> OnFul<M4<VI1, VI2, VI3, VI4>, VO>
     wf(final FR4<? super VI1, ? super VI2, ? super VI3, ? super VI4, ? extends RV<? extends VO>> onFulfilled)
     {
-        return new OnFul<M4<VI1, VI2, VI3, VI4>, VO>() {
-            @Override public RV<? extends VO> call(final M4<VI1, VI2, VI3, VI4> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3, v.v4);
-                else
-                    return onFulfilled.call(null, null, null, null);
-            }
-        };
+        return MultiCallback.lightWeight(4, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -247,14 +307,7 @@ public class Promises
             ? extends RV<? extends VO>
         > onFulfilled
     ) {
-        return new OnFul<M5<VI1, VI2, VI3, VI4, VI5>, VO>() {
-            @Override public RV<? extends VO> call(final M5<VI1, VI2, VI3, VI4, VI5> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3, v.v4, v.v5);
-                else
-                    return onFulfilled.call(null, null, null, null, null);
-            }
-        };
+        return MultiCallback.lightWeight(5, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -277,5 +330,352 @@ public class Promises
         );
     }
     //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the list of the fulfilled values of all specified promises, in
+     * their iteration order, once all of them are fulfilled. The new promise is rejected as soon as any of the
+     * specified promises is rejected. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static <V> P<List<V>> all(final Iterable<? extends P<? extends V>> promises)
+    {
+        return LightWeightPromiseImpl.<List<V>>factory().all(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the list of the fulfilled values of all specified promises, in
+     * their argument order, once all of them are fulfilled. The new promise is rejected as soon as any of the
+     * specified promises is rejected.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V> P<List<V>> all(final P<? extends V>... promises)
+    {
+        return LightWeightPromiseImpl.<List<V>>factory().all(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the {@link Settlements} of all specified promises, indexed by their
+     * iteration order, once all of them are either fulfilled or rejected. Non-promise elements are treated as
+     * fulfilled values.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static <V> P<Settlements<V, Void>> allSettled(final Iterable<? extends P<? extends V>> promises)
+    {
+        return LightWeightPromiseImpl.<Settlements<V, Void>>factory().allSettled(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the {@link Settlements} of all specified promises, indexed by their
+     * argument order, once all of them are either fulfilled or rejected.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V> P<Settlements<V, Void>> allSettled(final P<? extends V>... promises)
+    {
+        return LightWeightPromiseImpl.<Settlements<V, Void>>factory().allSettled(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the first settled one of the specified promises. The
+     * new promise stays pending if no promise is specified. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static <V> P<V> race(final Iterable<? extends P<? extends V>> promises)
+    {
+        return LightWeightPromiseImpl.<V>factory().race(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the first settled one of the specified promises. The
+     * new promise stays pending if no promise is specified.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V> P<V> race(final P<? extends V>... promises)
+    {
+        return LightWeightPromiseImpl.<V>factory().race(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the value of the first fulfilled one of the specified promises. If
+     * all of them are rejected, the new promise is rejected with an {@link promises.AggregateException} of the
+     * rejection exceptions, in their iteration order. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static <V> P<V> any(final Iterable<? extends P<? extends V>> promises)
+    {
+        return LightWeightPromiseImpl.<V>factory().any(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the value of the first fulfilled one of the specified promises. If
+     * all of them are rejected, the new promise is rejected with an {@link promises.AggregateException} of the
+     * rejection exceptions, in their argument order.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V> P<V> any(final P<? extends V>... promises)
+    {
+        return LightWeightPromiseImpl.<V>factory().any(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Maps the specified inputs to promises by the {@code mapper} callback, with at most {@code parallelism}
+     * mapped promises pending at any time. The inputs are iterated lazily: the next input is taken only when a pending
+     * mapped promise is fulfilled.
+     * <p/>
+     * The returned promise would be fulfilled with the list of the fulfilled values of the mapped promises, in the
+     * iteration order of the inputs, or be rejected as soon as any mapped promise is rejected or the {@code mapper}
+     * callback throws. No further input is taken after the rejection.
+     *
+     * @param inputs The inputs to be mapped
+     * @param parallelism The maximum number of pending mapped promises
+     * @param exec The executor which the {@code mapper} callback would be executed on
+     * @param mapper The callback function mapping each input to a promise
+     * @return The promise representing the mapping state
+     */
+    public static <T, V> P<List<V>> mapAsync(
+        final Iterable<? extends T> inputs,
+        final int parallelism,
+        final Executor exec,
+        final FR1<? super T, ? extends P<? extends V>> mapper
+    ) {
+        return LightWeightPromiseImpl.<List<V>>factory().mapAsync(inputs, parallelism, exec, mapper);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously loops on a state: while the {@code condition} callback returns {@code true} for the current
+     * state, the {@code body} callback maps the state to a promise, whose fulfilled value becomes the next state.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with the final state, or be rejected as soon as an iteration is
+     * rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param initial The initial state
+     * @param condition The callback function deciding whether to run the next iteration
+     * @param body The callback function running an iteration
+     * @return The promise representing the loop execution state
+     */
+    public static <V> P<V> loop(
+        final Executor exec,
+        final V initial,
+        final FR1<? super V, Boolean> condition,
+        final FR1<? super V, ? extends P<? extends V>> body
+    ) {
+        return LightWeightPromiseImpl.<V>factory().loop(exec, initial, condition, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, while the {@code condition} callback
+     * returns {@code true}. Each iteration starts after the one before it is fulfilled. Iterations which are resolved
+     * synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param condition The callback function deciding whether to run the next iteration
+     * @param body The callback function running an iteration
+     * @return The promise representing the loop execution state
+     */
+    public static P<Void> whileAsync(final Executor exec, final FR0<Boolean> condition, final FR0<? extends P<?>> body)
+    {
+        return LightWeightPromiseImpl.<Void>factory().whileAsync(exec, condition, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, once and then again while the
+     * {@code condition} callback returns {@code true}. Each iteration starts after the one before it is fulfilled.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param body The callback function running an iteration
+     * @param condition The callback function deciding whether to run the next iteration
+     * @return The promise representing the loop execution state
+     */
+    public static P<Void> doWhileAsync(
+        final Executor exec,
+        final FR0<? extends P<?>> body,
+        final FR0<Boolean> condition
+    ) {
+        return LightWeightPromiseImpl.<Void>factory().doWhileAsync(exec, body, condition);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, for each index from {@code from}
+     * (inclusive) to {@code to} (exclusive) in sequence. Each iteration starts after the one before it is fulfilled.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or the {@code body} callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param body The callback function running the iteration of an index
+     * @return The promise representing the loop execution state
+     */
+    public static P<Void> forAsync(
+        final Executor exec,
+        final int from,
+        final int to,
+        final FR1<Integer, ? extends P<?>> body
+    ) {
+        return LightWeightPromiseImpl.<Void>factory().forAsync(exec, from, to, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously selects a branch by the fulfilled value of the {@code predicate} promise: the
+     * {@code thenBranch} callback if the value is {@code true}, or the {@code elseBranch} callback otherwise. Only
+     * the selected callback is called, and the returned promise is resolved in the same way as the promise it returns.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} if the selected callback is {@code null}, or be
+     * rejected if the {@code predicate} promise is rejected or the selected callback throws.
+     *
+     * @param exec The executor on which the selected branch is built, or {@code null} to build it on the thread
+     *             settling the predicate promise
+     * @param predicate The promise deciding which branch is selected
+     * @param thenBranch The callback function building the branch selected by {@code true}
+     * @param elseBranch The callback function building the branch selected otherwise, or {@code null}
+     * @return The promise representing the selected branch
+     */
+    public static <V> P<V> ifAsync(
+        final Executor exec,
+        final P<Boolean> predicate,
+        final FR0<? extends P<? extends V>> thenBranch,
+        final FR0<? extends P<? extends V>> elseBranch
+    ) {
+        return LightWeightPromiseImpl.<V>factory().ifAsync(exec, predicate, thenBranch, elseBranch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously selects a branch by the fulfilled value of the {@code selector} promise: the callback mapped
+     * from the value in {@code cases}, or the {@code defaultBranch} callback if there is no such mapping. Only the
+     * selected callback is called, and the returned promise is resolved in the same way as the promise it returns.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} if the selected callback is {@code null}, or be
+     * rejected if the {@code selector} promise is rejected or the selected callback throws.
+     *
+     * @param exec The executor on which the selected branch is built, or {@code null} to build it on the thread
+     *             settling the selector promise
+     * @param selector The promise deciding which branch is selected
+     * @param cases The callback functions building the branches, mapped from the values selecting them
+     * @param defaultBranch The callback function building the branch selected by unmapped values, or {@code null}
+     * @return The promise representing the selected branch
+     */
+    public static <K, V> P<V> switchAsync(
+        final Executor exec,
+        final P<? extends K> selector,
+        final Map<? super K, ? extends FR0<? extends P<? extends V>>> cases,
+        final FR0<? extends P<? extends V>> defaultBranch
+    ) {
+        return LightWeightPromiseImpl.<V>factory().switchAsync(exec, selector, cases, defaultBranch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with {@code null} after the specified delay. The delays of all
+     * promises are tracked by a shared hashed-wheel timer with a 1-millisecond tick, running on a single daemon thread.
+     *
+     * @param millis The delay in milliseconds
+     * @return The created promise
+     */
+    public static <V> P<V> delay(final long millis)
+    {
+        return LightWeightPromiseImpl.<V>factory().delay(millis, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the specified value after the specified delay. The delays of all
+     * promises are tracked by a shared hashed-wheel timer with a 1-millisecond tick, running on a single daemon thread.
+     *
+     * @param millis The delay in milliseconds
+     * @param value The fulfilled value
+     * @return The created promise
+     */
+    public static <V> P<V> delay(final long millis, final V value)
+    {
+        return LightWeightPromiseImpl.<V>factory().delay(millis, value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the specified promise, or is rejected with a
+     * {@link promises.PromiseTimeoutException} if the specified promise is not resolved within the specified timeout.
+     * On the timeout, the new promise stops listening to the specified promise, which is left untouched.
+     *
+     * @param promise The promise to be waited for
+     * @param millis The timeout in milliseconds
+     * @return The created promise
+     */
+    public static <V> P<V> withTimeout(final P<? extends V> promise, final long millis)
+    {
+        return LightWeightPromiseImpl.<V>factory().withTimeout(promise, millis);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Cancels the specified promise if it is still pending, by rejecting it with a new
+     * {@link promises.PromiseCancelledException}. Pending callbacks chained from it are rejected in the same way, and
+     * queued callbacks producing it are skipped. Once all of the promises chained from a pending promise are cancelled,
+     * that promise is cancelled as well, so that the upstream computation is skipped when it has not started yet.
+     *
+     * @param promise The promise to be cancelled
+     * @return {@code true} if the promise is cancelled by this call, or {@code false} if it is already resolved
+     */
+    public static boolean cancel(final P<?> promise)
+    {
+        return LightWeightPromiseImpl.factory().cancel(promise);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a cache of promises loaded by the {@code loader} callback. Concurrent lookups of the same key share a
+     * single loading promise, and entries whose promises are rejected are removed, so that they are loaded again on
+     * the next lookup. Each lookup of a pending entry returns its own promise, so cancelling it does not affect the
+     * other lookups; the shared load is cancelled only once all of the promises returned for it are cancelled.
+     * <p/>
+     * Once more than {@code capacity} entries are cached, the least recently used entries are evicted, where an entry
+     * looked up since it was last examined for eviction is given a second chance. Fulfilled entries expire after
+     * {@code expireAfterWriteMillis} since their promises are fulfilled, or after {@code expireAfterAccessMillis}
+     * since they are last looked up; a non-positive duration disables the corresponding expiration.
+     *
+     * @param capacity The maximum number of cached entries
+     * @param expireAfterWriteMillis The expiration after fulfillment in milliseconds
+     * @param expireAfterAccessMillis The expiration after the last lookup in milliseconds
+     * @param loader The callback function loading the promise of each key
+     * @return The created cache
+     * @throws IllegalArgumentException If {@code capacity} is not positive
+     */
+    public static <K, V> AsyncCache<K, V> asyncCache(
+        final int capacity,
+        final long expireAfterWriteMillis,
+        final long expireAfterAccessMillis,
+        final FR1<? super K, ? extends P<? extends V>> loader
+    ) {
+        return LightWeightPromiseImpl.factory()
+            .asyncCache(capacity, expireAfterWriteMillis, expireAfterAccessMillis, loader);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
 }
 //---------------------------------------------------------------------------------------------------------------------
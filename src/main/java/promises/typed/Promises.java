@@ -5,6 +5,7 @@
 //---------------------------------------------------------------------------------------------------------------------
 package promises.typed;
 import promises.FR0;
+import promises.FR1;
 import promises.FR2;
 import promises.FR3;
 import promises.FR4;
@@ -15,7 +16,13 @@ import promises.M3;
 import promises.M4;
 import promises.M5;
 import promises.PromiseState;
+import promises.Settlements;
+import promises.impl.ImplUtil;
+import promises.impl.MultiCallback;
+import promises.impl.MultiValue;
 import promises.impl.TypedPromiseImpl;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 //---------------------------------------------------------------------------------------------------------------------
 /**
@@ -49,7 +56,7 @@ public class Promises
      */
     public static <V1, V2, R> Resolution<M2<V1, V2>, R> v(final V1 v1, final V2 v2)
     {
-        return v(M2.of(v1, v2));
+        return ImplUtil.cast(MultiValue.of(v1, v2));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -62,7 +69,7 @@ public class Promises
      */
     public static <V1, V2, V3, R> Resolution<M3<V1, V2, V3>, R> v(final V1 v1, final V2 v2, final V3 v3)
     {
-        return v(M3.of(v1, v2, v3));
+        return ImplUtil.cast(MultiValue.of(v1, v2, v3));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -77,7 +84,7 @@ public class Promises
     public static <V1, V2, V3, V4, R> Resolution<M4<V1, V2, V3, V4>, R>
     v(final V1 v1, final V2 v2, final V3 v3, final V4 v4)
     {
-        return v(M4.of(v1, v2, v3, v4));
+        return ImplUtil.cast(MultiValue.of(v1, v2, v3, v4));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -93,7 +100,7 @@ public class Promises
     public static <V1, V2, V3, V4, V5, R> Resolution<M5<V1, V2, V3, V4, V5>, R>
     v(final V1 v1, final V2 v2, final V3 v3, final V4 v4, final V5 v5)
     {
-        return v(M5.of(v1, v2, v3, v4, v5));
+        return ImplUtil.cast(MultiValue.of(v1, v2, v3, v4, v5));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -204,7 +211,7 @@ public class Promises
      */
     public static <V1, V2, R> Promise<M2<V1, V2>, R> pf(final V1 v1, final V2 v2)
     {
-        return pf(M2.of(v1, v2));
+        return TypedPromiseImpl.<M2<V1, V2>, R>factory().fulfilledPromise(MultiValue.of(v1, v2));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -217,7 +224,7 @@ public class Promises
      */
     public static <V1, V2, V3, R> Promise<M3<V1, V2, V3>, R> pf(final V1 v1, final V2 v2, final V3 v3)
     {
-        return pf(M3.of(v1, v2, v3));
+        return TypedPromiseImpl.<M3<V1, V2, V3>, R>factory().fulfilledPromise(MultiValue.of(v1, v2, v3));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -232,7 +239,7 @@ public class Promises
     public static <V1, V2, V3, V4, R> Promise<M4<V1, V2, V3, V4>, R>
     pf(final V1 v1, final V2 v2, final V3 v3, final V4 v4)
     {
-        return pf(M4.of(v1, v2, v3, v4));
+        return TypedPromiseImpl.<M4<V1, V2, V3, V4>, R>factory().fulfilledPromise(MultiValue.of(v1, v2, v3, v4));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -248,7 +255,8 @@ public class Promises
     public static <V1, V2, V3, V4, V5, R> Promise<M5<V1, V2, V3, V4, V5>, R>
     pf(final V1 v1, final V2 v2, final V3 v3, final V4 v4, final V5 v5)
     {
-        return pf(M5.of(v1, v2, v3, v4, v5));
+        return TypedPromiseImpl.<M5<V1, V2, V3, V4, V5>, R>factory()
+            .fulfilledPromise(MultiValue.of(v1, v2, v3, v4, v5));
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -411,14 +419,7 @@ public class Promises
     public static <VI1, VI2, VO, RO> OnFulfilled<M2<VI1, VI2>, VO, RO>
     wf(final FR2<? super VI1, ? super VI2, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled)
     {
-        return new OnFulfilled<M2<VI1, VI2>, VO, RO>() {
-            @Override public Resolution<? extends VO, ? extends RO> call(final M2<VI1, VI2> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2);
-                else
-                    return onFulfilled.call(null, null);
-            }
-        };
+        return MultiCallback.typed(2, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -430,14 +431,7 @@ public class Promises
     public static <VI1, VI2, VI3, VO, RO> OnFulfilled<M3<VI1, VI2, VI3>, VO, RO>
     wf(final FR3<? super VI1, ? super VI2, ? super VI3, ? extends Resolution<? extends VO, ? extends RO>> onFulfilled)
     {
-        return new OnFulfilled<M3<VI1, VI2, VI3>, VO, RO>() {
-            @Override public Resolution<? extends VO, ? extends RO> call(final M3<VI1, VI2, VI3> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3);
-                else
-                    return onFulfilled.call(null, null, null);
-            }
-        };
+        return MultiCallback.typed(3, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -452,15 +446,7 @@ public class Promises
             ? extends Resolution<? extends VO, ? extends RO>
         > onFulfilled
     ) {
-        return new OnFulfilled<M4<VI1, VI2, VI3, VI4>, VO, RO>() {
-            @Override public Resolution<? extends VO, ? extends RO>
-            call(final M4<VI1, VI2, VI3, VI4> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3, v.v4);
-                else
-                    return onFulfilled.call(null, null, null, null);
-            }
-        };
+        return MultiCallback.typed(4, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -475,15 +461,7 @@ public class Promises
             ? extends Resolution<? extends VO, ? extends RO>
         > onFulfilled
     ) {
-        return new OnFulfilled<M5<VI1, VI2, VI3, VI4, VI5>, VO, RO>() {
-            @Override public Resolution<? extends VO, ? extends RO>
-            call(final M5<VI1, VI2, VI3, VI4, VI5> v) throws Throwable {
-                if (v != null)
-                    return onFulfilled.call(v.v1, v.v2, v.v3, v.v4, v.v5);
-                else
-                    return onFulfilled.call(null, null, null, null, null);
-            }
-        };
+        return MultiCallback.typed(5, onFulfilled);
     }
     //-----------------------------------------------------------------------------------------------------------------
     /**
@@ -597,5 +575,331 @@ public class Promises
         );
     }
     //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the list of the fulfilled values of all specified promises, in
+     * their iteration order, once all of them are fulfilled. The new promise is rejected as soon as any of the
+     * specified promises is rejected. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static <V, R> Promise<List<V>, R> all(final Iterable<? extends Promise<? extends V, ? extends R>> promises)
+    {
+        return TypedPromiseImpl.<List<V>, R>factory().all(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the list of the fulfilled values of all specified promises, in
+     * their argument order, once all of them are fulfilled. The new promise is rejected as soon as any of the
+     * specified promises is rejected.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V, R> Promise<List<V>, R> all(final Promise<? extends V, ? extends R>... promises)
+    {
+        return TypedPromiseImpl.<List<V>, R>factory().all(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the {@link Settlements} of all specified promises, indexed by their
+     * iteration order, once all of them are either fulfilled or rejected. Non-promise elements are treated as
+     * fulfilled values.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    public static <V, R> Promise<Settlements<V, R>, R>
+    allSettled(final Iterable<? extends Promise<? extends V, ? extends R>> promises)
+    {
+        return TypedPromiseImpl.<Settlements<V, R>, R>factory().allSettled(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the {@link Settlements} of all specified promises, indexed by their
+     * argument order, once all of them are either fulfilled or rejected.
+     *
+     * @param promises The promises to be waited for
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V, R> Promise<Settlements<V, R>, R>
+    allSettled(final Promise<? extends V, ? extends R>... promises)
+    {
+        return TypedPromiseImpl.<Settlements<V, R>, R>factory().allSettled(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the first settled one of the specified promises. The
+     * new promise stays pending if no promise is specified. Non-promise elements are treated as fulfilled values.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static <V, R> Promise<V, R> race(final Iterable<? extends Promise<? extends V, ? extends R>> promises)
+    {
+        return TypedPromiseImpl.<V, R>factory().race(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the first settled one of the specified promises. The
+     * new promise stays pending if no promise is specified.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V, R> Promise<V, R> race(final Promise<? extends V, ? extends R>... promises)
+    {
+        return TypedPromiseImpl.<V, R>factory().race(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the value of the first fulfilled one of the specified promises. If
+     * all of them are rejected, the new promise is rejected with the list of the rejection reasons and an
+     * {@link promises.AggregateException} of the rejection exceptions, in their iteration order. Non-promise elements
+     * are treated as fulfilled values.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    public static <V, R> Promise<V, List<R>>
+    any(final Iterable<? extends Promise<? extends V, ? extends R>> promises)
+    {
+        return TypedPromiseImpl.<V, List<R>>factory().any(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the value of the first fulfilled one of the specified promises. If
+     * all of them are rejected, the new promise is rejected with the list of the rejection reasons and an
+     * {@link promises.AggregateException} of the rejection exceptions, in their argument order.
+     *
+     * @param promises The promises to be raced
+     * @return The created promise
+     */
+    @SuppressWarnings("unchecked") // The varargs array is only read, never stored into or exposed
+    public static <V, R> Promise<V, List<R>> any(final Promise<? extends V, ? extends R>... promises)
+    {
+        return TypedPromiseImpl.<V, List<R>>factory().any(promises);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Maps the specified inputs to promises by the {@code mapper} callback, with at most {@code parallelism}
+     * mapped promises pending at any time. The inputs are iterated lazily: the next input is taken only when a pending
+     * mapped promise is fulfilled.
+     * <p/>
+     * The returned promise would be fulfilled with the list of the fulfilled values of the mapped promises, in the
+     * iteration order of the inputs, or be rejected as soon as any mapped promise is rejected or the {@code mapper}
+     * callback throws. No further input is taken after the rejection.
+     *
+     * @param inputs The inputs to be mapped
+     * @param parallelism The maximum number of pending mapped promises
+     * @param exec The executor which the {@code mapper} callback would be executed on
+     * @param mapper The callback function mapping each input to a promise
+     * @return The promise representing the mapping state
+     */
+    public static <T, V, R> Promise<List<V>, R> mapAsync(
+        final Iterable<? extends T> inputs,
+        final int parallelism,
+        final Executor exec,
+        final FR1<? super T, ? extends Promise<? extends V, ? extends R>> mapper
+    ) {
+        return TypedPromiseImpl.<List<V>, R>factory().mapAsync(inputs, parallelism, exec, mapper);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously loops on a state: while the {@code condition} callback returns {@code true} for the current
+     * state, the {@code body} callback maps the state to a promise, whose fulfilled value becomes the next state.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with the final state, or be rejected as soon as an iteration is
+     * rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param initial The initial state
+     * @param condition The callback function deciding whether to run the next iteration
+     * @param body The callback function running an iteration
+     * @return The promise representing the loop execution state
+     */
+    public static <V, R> Promise<V, R> loop(
+        final Executor exec,
+        final V initial,
+        final FR1<? super V, Boolean> condition,
+        final FR1<? super V, ? extends Promise<? extends V, ? extends R>> body
+    ) {
+        return TypedPromiseImpl.<V, R>factory().loop(exec, initial, condition, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, while the {@code condition} callback
+     * returns {@code true}. Each iteration starts after the one before it is fulfilled. Iterations which are resolved
+     * synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param condition The callback function deciding whether to run the next iteration
+     * @param body The callback function running an iteration
+     * @return The promise representing the loop execution state
+     */
+    public static <R> Promise<Void, R> whileAsync(
+        final Executor exec,
+        final FR0<Boolean> condition,
+        final FR0<? extends Promise<?, ? extends R>> body
+    ) {
+        return TypedPromiseImpl.<Void, R>factory().whileAsync(exec, condition, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, once and then again while the
+     * {@code condition} callback returns {@code true}. Each iteration starts after the one before it is fulfilled.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or a callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param body The callback function running an iteration
+     * @param condition The callback function deciding whether to run the next iteration
+     * @return The promise representing the loop execution state
+     */
+    public static <R> Promise<Void, R> doWhileAsync(
+        final Executor exec,
+        final FR0<? extends Promise<?, ? extends R>> body,
+        final FR0<Boolean> condition
+    ) {
+        return TypedPromiseImpl.<Void, R>factory().doWhileAsync(exec, body, condition);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously runs the {@code body} callback, which returns a promise, for each index from {@code from}
+     * (inclusive) to {@code to} (exclusive) in sequence. Each iteration starts after the one before it is fulfilled.
+     * Iterations which are resolved synchronously do not grow the call stack.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} when the loop ends, or be rejected as soon as an
+     * iteration is rejected or the {@code body} callback throws.
+     *
+     * @param exec The executor on which the callbacks are executed, or {@code null} to execute them on the thread
+     *             settling the previous iteration
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param body The callback function running the iteration of an index
+     * @return The promise representing the loop execution state
+     */
+    public static <R> Promise<Void, R> forAsync(
+        final Executor exec,
+        final int from,
+        final int to,
+        final FR1<Integer, ? extends Promise<?, ? extends R>> body
+    ) {
+        return TypedPromiseImpl.<Void, R>factory().forAsync(exec, from, to, body);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously selects a branch by the fulfilled value of the {@code predicate} promise: the
+     * {@code thenBranch} callback if the value is {@code true}, or the {@code elseBranch} callback otherwise. Only
+     * the selected callback is called, and the returned promise is resolved in the same way as the promise it returns.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} if the selected callback is {@code null}, or be
+     * rejected if the {@code predicate} promise is rejected or the selected callback throws.
+     *
+     * @param exec The executor on which the selected branch is built, or {@code null} to build it on the thread
+     *             settling the predicate promise
+     * @param predicate The promise deciding which branch is selected
+     * @param thenBranch The callback function building the branch selected by {@code true}
+     * @param elseBranch The callback function building the branch selected otherwise, or {@code null}
+     * @return The promise representing the selected branch
+     */
+    public static <V, R> Promise<V, R> ifAsync(
+        final Executor exec,
+        final Promise<Boolean, ? extends R> predicate,
+        final FR0<? extends Promise<? extends V, ? extends R>> thenBranch,
+        final FR0<? extends Promise<? extends V, ? extends R>> elseBranch
+    ) {
+        return TypedPromiseImpl.<V, R>factory().ifAsync(exec, predicate, thenBranch, elseBranch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Asynchronously selects a branch by the fulfilled value of the {@code selector} promise: the callback mapped
+     * from the value in {@code cases}, or the {@code defaultBranch} callback if there is no such mapping. Only the
+     * selected callback is called, and the returned promise is resolved in the same way as the promise it returns.
+     * <p/>
+     * The returned promise would be fulfilled with {@code null} if the selected callback is {@code null}, or be
+     * rejected if the {@code selector} promise is rejected or the selected callback throws.
+     *
+     * @param exec The executor on which the selected branch is built, or {@code null} to build it on the thread
+     *             settling the selector promise
+     * @param selector The promise deciding which branch is selected
+     * @param cases The callback functions building the branches, mapped from the values selecting them
+     * @param defaultBranch The callback function building the branch selected by unmapped values, or {@code null}
+     * @return The promise representing the selected branch
+     */
+    public static <K, V, R> Promise<V, R> switchAsync(
+        final Executor exec,
+        final Promise<? extends K, ? extends R> selector,
+        final Map<? super K, ? extends FR0<? extends Promise<? extends V, ? extends R>>> cases,
+        final FR0<? extends Promise<? extends V, ? extends R>> defaultBranch
+    ) {
+        return TypedPromiseImpl.<V, R>factory().switchAsync(exec, selector, cases, defaultBranch);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with {@code null} after the specified delay. The delays of all
+     * promises are tracked by a shared hashed-wheel timer with a 1-millisecond tick, running on a single daemon thread.
+     *
+     * @param millis The delay in milliseconds
+     * @return The created promise
+     */
+    public static <V, R> Promise<V, R> delay(final long millis)
+    {
+        return TypedPromiseImpl.<V, R>factory().delay(millis, null);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is fulfilled with the specified value after the specified delay. The delays of all
+     * promises are tracked by a shared hashed-wheel timer with a 1-millisecond tick, running on a single daemon thread.
+     *
+     * @param millis The delay in milliseconds
+     * @param value The fulfilled value
+     * @return The created promise
+     */
+    public static <V, R> Promise<V, R> delay(final long millis, final V value)
+    {
+        return TypedPromiseImpl.<V, R>factory().delay(millis, value);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Creates a new promise which is resolved in the same way as the specified promise, or is rejected with a
+     * {@link promises.PromiseTimeoutException} if the specified promise is not resolved within the specified timeout.
+     * On the timeout, the new promise stops listening to the specified promise, which is left untouched.
+     *
+     * @param promise The promise to be waited for
+     * @param millis The timeout in milliseconds
+     * @return The created promise
+     */
+    public static <V, R> Promise<V, R> withTimeout(final Promise<? extends V, ? extends R> promise, final long millis)
+    {
+        return TypedPromiseImpl.<V, R>factory().withTimeout(promise, millis);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    /**
+     * Cancels the specified promise if it is still pending, by rejecting it with a new
+     * {@link promises.PromiseCancelledException}. Pending callbacks chained from it are rejected in the same way, and
+     * queued callbacks producing it are skipped. Once all of the promises chained from a pending promise are cancelled,
+     * that promise is cancelled as well, so that the upstream computation is skipped when it has not started yet.
+     *
+     * @param promise The promise to be cancelled
+     * @return {@code true} if the promise is cancelled by this call, or {@code false} if it is already resolved
+     */
+    public static boolean cancel(final Promise<?, ?> promise)
+    {
+        return TypedPromiseImpl.factory().cancel(promise);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
 }
 //---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,122 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.Adoptable;
+import promises.Adopter;
+import promises.FR1;
+import promises.PromiseState;
+import promises.lw.P;
+import promises.lw.RV;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Measures the heap allocation per adoption hop of a foreign promise, by the {@code then}-based fallback path and by
+ * the {@link Adoptable} path. Run by {@code java -cp ... promises.impl.AdoptionBenchmark [hops]}.
+ */
+public final class AdoptionBenchmark
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static class ForeignP implements P<Object>
+    {
+        private final Object value;
+
+        ForeignP(final Object value) { this.value = value; }
+
+        @Override public Object value() { return value; }
+        @Override public PromiseState state() { return PromiseState.FULFILLED; }
+        @Override public Throwable exception() { return null; }
+        @Override public Object await() { return value; }
+        @Override public Object await(final long timeout, final TimeUnit unit) { return value; }
+        @Override public promises.Promise toUntypedPromise() { throw new UnsupportedOperationException(); }
+        @Override public <R> promises.typed.Promise<Object, R> toTypedPromise() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public <VO> P<VO> then(
+            final Executor exec,
+            final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
+            final FR1<Throwable, ? extends RV<? extends VO>> onRejected
+        ) {
+            try {
+                onFulfilled.call(value);
+            } catch (final Throwable e) {
+                throw new RuntimeException(e);
+            }
+
+            return null;
+        }
+
+        @Override public <VO> P<VO>
+        then(final Executor exec, final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled) {
+            return then(exec, onFulfilled, null);
+        }
+
+        @Override public <VO> P<VO> then(
+            final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled,
+            final FR1<Throwable, ? extends RV<? extends VO>> onRejected
+        ) {
+            return then(null, onFulfilled, onRejected);
+        }
+
+        @Override public <VO> P<VO> then(final FR1<? super Object, ? extends RV<? extends VO>> onFulfilled) {
+            return then(null, onFulfilled, null);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class AdoptableForeignP extends ForeignP implements Adoptable
+    {
+        AdoptableForeignP(final Object value) { super(value); }
+
+        @Override public void subscribe(final Adopter adopter) { adopter.setFulfilled(value()); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class CountingAction implements ResolveAction
+    {
+        long count = 0;
+
+        @Override public void setAlwaysPending() {}
+        @Override public void setFulfilled(final Object value) { count++; }
+        @Override public void setRejected(final Object reason, final Throwable exception) {}
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static double bytesPerHop(final P<?> foreign, final int hops)
+    {
+        final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final CountingAction action = new CountingAction();
+
+        for (int i = 0; i < hops; i++)
+            BaseResolver.resolveValue(foreign, action);
+
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < hops; i++)
+            BaseResolver.resolveValue(foreign, action);
+
+        final long after = threadBean.getThreadAllocatedBytes(threadId);
+
+        if (action.count != hops * 2L)
+            throw new IllegalStateException("Lost adoptions: " + action.count);
+
+        return (double) (after - before) / hops;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static void main(final String[] args)
+    {
+        final int hops = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        final Integer value = 12345;
+
+        System.out.printf("fallback (then):    %8.1f bytes/hop%n", bytesPerHop(new ForeignP(value), hops));
+        System.out.printf("adoptable:          %8.1f bytes/hop%n", bytesPerHop(new AdoptableForeignP(value), hops));
+        System.out.printf("native lw promise:  %8.1f bytes/hop%n",
+            bytesPerHop(LightWeightPromiseImpl.factory().fulfilledPromise(value), hops));
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
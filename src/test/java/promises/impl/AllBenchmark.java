@@ -0,0 +1,94 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.lw.P;
+import promises.lw.Promises;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Measures the per-input overhead of the light-weight {@code all} combinator on 10, 1k and 100k inputs, which are
+ * either resolved already or resolved after being combined. Run by
+ * {@code java -cp ... promises.impl.AllBenchmark [total inputs per round]}.
+ */
+public final class AllBenchmark
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final int[] sizes = {10, 1000, 100000};
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long runResolved(final int size, final int iterations)
+    {
+        final List<P<Integer>> inputs = new ArrayList<P<Integer>>(size);
+
+        for (int i = 0; i < size; i++)
+            inputs.add(Promises.pf(i));
+
+        long sum = 0;
+
+        for (int i = 0; i < iterations; i++)
+            sum += Promises.all(inputs).value().size();
+
+        return sum;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long runPending(final int size, final int iterations)
+    {
+        final PromiseFactory<LightWeightPromiseImpl<Integer>> factory = LightWeightPromiseImpl.factory();
+        final PromiseStore[] stores = new PromiseStore[size];
+        final List<P<Integer>> inputs = new ArrayList<P<Integer>>(size);
+        long sum = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            inputs.clear();
+
+            for (int j = 0; j < size; j++) {
+                stores[j] = new PromiseStore();
+                inputs.add(factory.mutablePromise(stores[j]));
+            }
+
+            final P<List<Integer>> promise = Promises.all(inputs);
+
+            for (int j = 0; j < size; j++)
+                stores[j].setFulfilled(j);
+
+            sum += promise.value().size();
+        }
+
+        return sum;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static void main(final String[] args)
+    {
+        final int totalInputs = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < 5; round++) {
+            for (final int size : sizes) {
+                final int iterations = Math.max(1, totalInputs / size);
+
+                for (int pending = 0; pending < 2; pending++) {
+                    final long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+                    final long start = System.nanoTime();
+                    final long sum = pending == 0 ? runResolved(size, iterations) : runPending(size, iterations);
+                    final long elapsed = System.nanoTime() - start;
+                    final long bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+                    final long inputs = (long) size * iterations;
+
+                    System.out.printf(
+                        "round %d, %6d %s inputs: %7.1f ns/input, %7.1f bytes/input (sum %d)%n",
+                        round, size, pending == 0 ? "resolved" : "pending ",
+                        (double) elapsed / inputs, (double) bytes / inputs, sum
+                    );
+                }
+            }
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,254 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import junitparams.JUnitParamsRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import promises.FR1;
+import promises.PromiseState;
+import promises.lw.AsyncCache;
+import promises.lw.CacheStats;
+import promises.lw.P;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static promises.lw.Promises.asyncCache;
+import static promises.lw.Promises.pf;
+import static promises.lw.Promises.pr;
+//---------------------------------------------------------------------------------------------------------------------
+public final class AsyncCacheImplTest
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class Loader implements FR1<String, P<Integer>>
+    {
+        final List<String> loaded = new ArrayList<String>();
+        final Map<String, PromiseStore> pending = new HashMap<String, PromiseStore>();
+        boolean isPending = false;
+
+        @Override public P<Integer> call(final String key) {
+            loaded.add(key);
+
+            if (key.startsWith("fail"))
+                return pr(new IllegalStateException(key));
+
+            if (key.startsWith("throw"))
+                throw new IllegalArgumentException(key);
+
+            if (!isPending)
+                return pf(key.length());
+
+            final PromiseStore store = new PromiseStore();
+            pending.put(key, store);
+            return LightWeightPromiseImpl.<Integer>factory().mutablePromise(store);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static void assertStats(
+        final AsyncCache<?, ?> cache,
+        final long hits,
+        final long misses,
+        final long loadSuccesses,
+        final long loadFailures,
+        final long evictions
+    ) {
+        final CacheStats stats = cache.stats();
+
+        assertEquals(hits, stats.hitCount());
+        assertEquals(misses, stats.missCount());
+        assertEquals(loadSuccesses, stats.loadSuccessCount());
+        assertEquals(loadFailures, stats.loadFailureCount());
+        assertEquals(evictions, stats.evictionCount());
+        assertTrue(stats.totalLoadTime() >= 0);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class Loads
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testSharedInFlightLoad() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 0, 0, loader);
+
+            loader.isPending = true;
+
+            final P<Integer> first = cache.get("a");
+            final P<Integer> second = cache.get("a");
+
+            assertNotSame(first, second);
+            assertEquals(PromiseState.PENDING, first.state());
+            assertEquals(Arrays.asList("a"), loader.loaded);
+
+            loader.pending.get("a").setFulfilled(1);
+
+            assertEquals(Integer.valueOf(1), first.await());
+            assertEquals(Integer.valueOf(1), second.await());
+            assertSame(cache.get("a"), cache.get("a"));
+            assertEquals(Integer.valueOf(1), cache.get("a").value());
+            assertEquals(Arrays.asList("a"), loader.loaded);
+            assertStats(cache, 4, 1, 1, 0, 0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testRejectedLoadRemoved() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 0, 0, loader);
+
+            assertEquals(PromiseState.REJECTED, cache.get("fail").state());
+            assertEquals(PromiseState.REJECTED, cache.get("throw").state());
+            assertEquals(IllegalArgumentException.class, cache.get("throw").exception().getClass());
+            assertEquals(0, cache.size());
+            assertSame(null, cache.getIfPresent("fail"));
+
+            loader.isPending = true;
+
+            final P<Integer> promise = cache.get("pending");
+            loader.pending.get("pending").setRejected(null, new IllegalStateException());
+
+            assertEquals(PromiseState.REJECTED, promise.state());
+            assertNotSame(promise, cache.get("pending"));
+            assertEquals(Arrays.asList("fail", "throw", "throw", "pending", "pending"), loader.loaded);
+            assertStats(cache, 0, 6, 0, 4, 0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelledLoadReloaded() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 0, 0, loader);
+
+            loader.isPending = true;
+
+            final P<Integer> promise = cache.get("a");
+
+            assertTrue(LightWeightPromiseImpl.factory().cancel(promise));
+            assertNotSame(promise, cache.get("a"));
+
+            loader.pending.get("a").setFulfilled(1);
+
+            assertEquals(Arrays.asList("a", "a"), loader.loaded);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelledLookupKeepsSharedLoad() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 0, 0, loader);
+
+            loader.isPending = true;
+
+            final P<Integer> cancelled = cache.get("a");
+            final P<Integer> kept = cache.get("a");
+
+            assertTrue(LightWeightPromiseImpl.factory().cancel(cancelled));
+            assertEquals(PromiseState.PENDING, kept.state());
+            assertEquals(PromiseState.PENDING, cache.get("a").state());
+
+            loader.pending.get("a").setFulfilled(1);
+
+            assertEquals(Integer.valueOf(1), kept.await());
+            assertEquals(PromiseState.REJECTED, cancelled.state());
+            assertEquals(Arrays.asList("a"), loader.loaded);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test(expected = IllegalArgumentException.class)
+        public final void testNonPositiveCapacity() throws Exception
+        {
+            asyncCache(0, 0, 0, new Loader());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class Evictions
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testLeastRecentlyUsedEvicted() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(2, 0, 0, loader);
+
+            cache.get("a");
+            cache.get("bb");
+            cache.get("a");
+            cache.get("ccc");
+
+            assertEquals(2, cache.size());
+            assertEquals(Integer.valueOf(1), cache.getIfPresent("a").value());
+            assertSame(null, cache.getIfPresent("bb"));
+            assertEquals(Integer.valueOf(3), cache.getIfPresent("ccc").value());
+            assertStats(cache, 3, 4, 3, 0, 1);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testExpireAfterWrite() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 30, 0, loader);
+
+            cache.get("a");
+            cache.get("a");
+            Thread.sleep(50);
+            cache.get("a");
+
+            assertEquals(Arrays.asList("a", "a"), loader.loaded);
+            assertStats(cache, 1, 2, 2, 0, 0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testExpireAfterAccess() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 0, 60, loader);
+
+            cache.get("a");
+            cache.get("b");
+
+            for (int i = 0; i < 4; i++) {
+                Thread.sleep(20);
+                cache.get("a");
+            }
+
+            cache.cleanUp();
+
+            assertEquals(1, cache.size());
+            assertSame(null, cache.getIfPresent("b"));
+            assertEquals(Arrays.asList("a", "b"), loader.loaded);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testInvalidate() throws Exception
+        {
+            final Loader loader = new Loader();
+            final AsyncCache<String, Integer> cache = asyncCache(10, 0, 0, loader);
+
+            cache.get("a");
+            cache.get("b");
+            cache.invalidate("a");
+
+            assertEquals(1, cache.size());
+            assertSame(null, cache.getIfPresent("a"));
+
+            cache.invalidateAll();
+
+            assertEquals(0, cache.size());
+            cache.get("b");
+            assertEquals(Arrays.asList("a", "b", "b"), loader.loaded);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
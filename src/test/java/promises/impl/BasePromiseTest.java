@@ -5,6 +5,7 @@
 //---------------------------------------------------------------------------------------------------------------------
 package promises.impl;
 import junitparams.Parameters;
+import mockit.Deencapsulation;
 import mockit.FullVerificationsInOrder;
 import mockit.Injectable;
 import mockit.Verifications;
@@ -13,25 +14,46 @@ import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.junit.Test;
+import promises.Adoptable;
+import promises.Adopter;
+import promises.AggregateException;
+import promises.BatchExecutor;
 import promises.F2;
+import promises.FR0;
 import promises.FR1;
 import promises.FR2;
 import promises.FR3;
+import promises.InlineExecutor;
+import promises.PromiseCancelledException;
 import promises.PromiseRejectedException;
 import promises.PromiseState;
+import promises.PromiseTimeoutException;
+import promises.Settlements;
 import promises.TestData;
 import promises.TestLogger;
 import promises.TestStep;
 import promises.TestThread;
 import promises.TestUtil;
+import promises.typed.Resolution;
 import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 //---------------------------------------------------------------------------------------------------------------------
 public abstract class BasePromiseTest<R, P extends R, T extends R>
@@ -261,6 +283,59 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
         abstract P get(final Params params, final Executor exec);
     }
     //-----------------------------------------------------------------------------------------------------------------
+    private static abstract class AdoptableResolution implements Resolution<Object, Object>, Adoptable
+    {
+        @Override public PromiseState state() { throw new UnsupportedOperationException(); }
+        @Override public Object value() { throw new UnsupportedOperationException(); }
+        @Override public Object reason() { throw new UnsupportedOperationException(); }
+        @Override public Throwable exception() { throw new UnsupportedOperationException(); }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class QueuedInlineExecutor implements InlineExecutor
+    {
+        final ArrayDeque<Runnable> commands = new ArrayDeque<Runnable>();
+        final boolean inExecutorThread;
+        final int maxInlineDepth;
+
+        QueuedInlineExecutor(final boolean inExecutorThread, final int maxInlineDepth) {
+            this.inExecutorThread = inExecutorThread;
+            this.maxInlineDepth = maxInlineDepth;
+        }
+
+        @Override public void execute(@Nonnull final Runnable command) { commands.addLast(command); }
+        @Override public boolean inExecutorThread() { return inExecutorThread; }
+        @Override public int maxInlineDepth() { return maxInlineDepth; }
+
+        int runQueued() {
+            int count = 0;
+
+            for (Runnable command; (command = commands.pollFirst()) != null; count++)
+                command.run();
+
+            return count;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final class QueuedBatchExecutor implements BatchExecutor
+    {
+        final ArrayDeque<Runnable> commands = new ArrayDeque<Runnable>();
+        final int maxBatchSize;
+
+        QueuedBatchExecutor(final int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+
+        @Override public void execute(@Nonnull final Runnable command) { commands.addLast(command); }
+        @Override public int maxBatchSize() { return maxBatchSize; }
+
+        int runQueued() {
+            int count = 0;
+
+            for (Runnable command; (command = commands.pollFirst()) != null; count++)
+                command.run();
+
+            return count;
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
     private static abstract class ExecutorSupplier
     {
         //-------------------------------------------------------------------------------------------------------------
@@ -316,6 +391,14 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
             {promiseFactory(),       "FULFILLED", "abc"},
         };}
         //-------------------------------------------------------------------------------------------------------------
+        final Object[][] paramsConstantValue() { return new Object[][] {
+            {null}, {true}, {false}, {""}, {0}, {-128}, {127},
+        };}
+        //-------------------------------------------------------------------------------------------------------------
+        final Object[][] paramsNonConstantValue() { return new Object[][] {
+            {"abc"}, {128}, {-129}, {0L}, {new Integer(1)},
+        };}
+        //-------------------------------------------------------------------------------------------------------------
         final Object[][] paramsRejected() { return new Object[][] {
             {null,  null,                   null},
             {123,   null,                   null},
@@ -436,6 +519,30 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
         }
         //-------------------------------------------------------------------------------------------------------------
         @Test
+        @Parameters(method = "paramsConstantValue")
+        public final void testConstantFulfilledPromise(final Object constantValue)
+        {
+            final P promise = promiseFactory().fulfilledPromise(constantValue);
+
+            assertSame(promise, promiseFactory().fulfilledPromise(constantValue));
+            assertThat(promise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, constantValue, null, null));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        @Parameters(method = "paramsNonConstantValue")
+        public final void testNonConstantFulfilledPromise(final Object value)
+        {
+            final P promise = promiseFactory().fulfilledPromise(value);
+
+            assertNotSame(promise, promiseFactory().fulfilledPromise(value));
+            assertThat(promise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, value, null, null));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
         @Parameters(method = "paramsRejected")
         public final void testRejectedPromise(
             final Object rejectedReason,
@@ -562,6 +669,44 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
             new FullVerificationsInOrder() {};
         }
         //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void withRejectedCachedException() throws Exception
+        {
+            final P promise = promiseFactory().rejectedPromise(null, new Exception());
+            final PromiseRejectedException rejected = awaitRejected(promise);
+
+            assertSame(rejected, awaitRejected(promise));
+            assertTrue(rejected.getStackTrace().length > 0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void withStacklessRejections() throws Exception
+        {
+            promises.Promises.setStacklessRejections(true);
+
+            try {
+                final PromiseStore store = new PromiseStore();
+                final P promise = promiseFactory().mutablePromise(store);
+                store.setRejected(null, new Exception());
+
+                assertEquals(0, awaitRejected(promise).getStackTrace().length);
+                assertEquals(0, awaitRejected(promiseFactory().rejectedPromise(null, null)).getStackTrace().length);
+            } finally {
+                promises.Promises.setStacklessRejections(false);
+            }
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        private PromiseRejectedException awaitRejected(final P promise) throws Exception
+        {
+            try {
+                await(promise);
+            } catch (final PromiseRejectedException e) {
+                return e;
+            }
+
+            throw new AssertionError("Promise is not rejected");
+        }
+        //-------------------------------------------------------------------------------------------------------------
         @Test(expected = InterruptedException.class)
         public final void withAlwaysPendingWaitUnlimited() throws Exception
         {
@@ -842,6 +987,29 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
             new FullVerificationsInOrder() {};
         }
         //-------------------------------------------------------------------------------------------------------------
+        @Test
+        @Parameters(method = "paramsToPromise")
+        public final <TR, TP extends TR> void withMutableViews(
+            final ToPromiseSupplier<TP> suppToPromise,
+            final BasePromiseTest<TR, TP, ?> toTest
+        ) {
+            final PromiseStore store = new PromiseStore();
+            final P promise = promiseFactory().mutablePromise(store);
+            final TP pendingView = suppToPromise.get(promise);
+
+            assertSame(pendingView, suppToPromise.get(promise));
+
+            store.setFulfilled("v");
+
+            final TP resolvedView = suppToPromise.get(promise);
+
+            assertSame(resolvedView, suppToPromise.get(promise));
+            assertThat(pendingView, toTest.promiseMatcher("MUTABLE", PromiseState.FULFILLED, "v", null, null));
+            assertThat(resolvedView, toTest.promiseMatcher("FULFILLED", PromiseState.FULFILLED, "v", null, null));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
         @SuppressWarnings("unused")
         private Object[][] paramsWithMutable()
         {
@@ -2070,6 +2238,230 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
     //-----------------------------------------------------------------------------------------------------------------
     public class BaseChains extends Params
     {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testDeepPendingChain() throws Exception
+        {
+            final int chainLength = 100000;
+            final PromiseStore srcStore = new PromiseStore();
+
+            final FR1<Object, R> onFulfilled = new FR1<Object, R>() { @Override public R call(final Object value) {
+                return fulfilledResolution((Integer) value + 1);
+            }};
+
+            P promise = promiseFactory().mutablePromise(srcStore);
+
+            for (int i = 0; i < chainLength; i++)
+                promise = doThen(promise, null, onFulfilled, unusedOnRejected);
+
+            srcStore.setFulfilled(0);
+
+            assertEquals(chainLength, await(promise));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testSynchronousPendingChain() throws Exception
+        {
+            final PromiseStore srcStore = new PromiseStore();
+
+            final FR1<Object, R> onFulfilled = new FR1<Object, R>() { @Override public R call(final Object value) {
+                return fulfilledResolution((Integer) value + 1);
+            }};
+
+            final FR1<Object, R> onFulfilledToReject = new FR1<Object, R>() {
+                @Override public R call(final Object value) { return rejectedResolution(value, new Exception()); }
+            };
+
+            final FR2<Object, Throwable, R> onRejected = new FR2<Object, Throwable, R>() {
+                @Override public R call(final Object reason, final Throwable exception) {
+                    return fulfilledResolution(30);
+                }
+            };
+
+            final P promise1 = doThen(promiseFactory().mutablePromise(srcStore), null, onFulfilled, unusedOnRejected);
+            final P promise2 = doThen(promise1, null, onFulfilled, unusedOnRejected);
+            final P promise3 = doThen(promise2, null, onFulfilled, unusedOnRejected);
+            final P promise3_1 = doThen(promise2, null, onFulfilled, unusedOnRejected);
+            final P promise4 = doThen(promise3, null, onFulfilledToReject, unusedOnRejected);
+            final P promise5 = doThen(promise4, null, unusedOnFulfilled, onRejected);
+            final P promise6 = doThen(promise5, null, onFulfilled, unusedOnRejected);
+
+            srcStore.setFulfilled(0);
+
+            assertEquals(1, await(promise1));
+            assertEquals(2, await(promise2));
+            assertEquals(3, await(promise3));
+            assertEquals(3, await(promise3_1));
+            assertThat(promise4, promiseMatcher("MUTABLE", PromiseState.REJECTED, null, 3, Exception.class));
+            assertEquals(30, await(promise5));
+            assertEquals(31, await(promise6));
+            assertEquals(32, await(doThen(promise6, null, onFulfilled, unusedOnRejected)));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testLazyIntermediateStores() throws Exception
+        {
+            final PromiseStore srcStore = new PromiseStore();
+
+            final FR1<Object, R> onFulfilled = new FR1<Object, R>() { @Override public R call(final Object value) {
+                return fulfilledResolution((Integer) value + 1);
+            }};
+
+            final P promise1 = doThen(promiseFactory().mutablePromise(srcStore), null, onFulfilled, unusedOnRejected);
+            final P promise2 = doThen(promise1, null, onFulfilled, unusedOnRejected);
+            final P promise3 = doThen(promise2, null, onFulfilled, unusedOnRejected);
+            final ChainStage<?, ?> stage1 = Deencapsulation.getField(promise1, "store");
+            final ChainStage<?, ?> stage2 = Deencapsulation.getField(promise2, "store");
+
+            assertSame(stage2, Deencapsulation.getField(stage1, "tail"));
+            assertSame(Deencapsulation.getField(promise3, "store"), Deencapsulation.getField(stage2, "tail"));
+
+            srcStore.setFulfilled(0);
+
+            assertTrue(!(Deencapsulation.getField(stage1, "tail") instanceof PromiseStore));
+            assertTrue(!(Deencapsulation.getField(stage2, "tail") instanceof PromiseStore));
+            assertEquals(3, await(promise3));
+            assertEquals(1, await(promise1));
+            assertTrue(Deencapsulation.getField(stage1, "tail") instanceof PromiseStore);
+            assertEquals(2, await(doThen(promise1, null, onFulfilled, unusedOnRejected)));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testSkippedStages() throws Exception
+        {
+            final Exception exception = new Exception();
+            final P rejectedPromise = promiseFactory().rejectedPromise(null, exception);
+            final P fulfilledPromise = promiseFactory().fulfilledPromise(1000);
+
+            P rejectedChain = rejectedPromise;
+            P fulfilledChain = fulfilledPromise;
+
+            for (int i = 0; i < 15; i++) {
+                rejectedChain = doThen(rejectedChain, null, unusedOnFulfilled, null);
+                fulfilledChain = doThen(fulfilledChain, null, null, unusedOnRejected);
+            }
+
+            assertSame(rejectedPromise, rejectedChain);
+            assertSame(fulfilledPromise, fulfilledChain);
+
+            final PromiseStore srcStore = new PromiseStore();
+            final P srcPromise = promiseFactory().mutablePromise(srcStore);
+            final P skippedPromise = doThen(srcPromise, null, null, null);
+            final P dstPromise = doThen(srcPromise, null, unusedOnFulfilled, null);
+
+            assertSame(skippedPromise, doThen(srcPromise, null, null, null));
+
+            srcStore.setRejected(null, exception);
+
+            final P rejectedDstPromise = doThen(dstPromise, null, unusedOnFulfilled, null);
+
+            assertThat(skippedPromise, promiseMatcher("MUTABLE", PromiseState.REJECTED, null, null, Exception.class));
+            assertSame(rejectedDstPromise, doThen(dstPromise, null, unusedOnFulfilled, null));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        private P inlineExecutorChain(final QueuedInlineExecutor exec, final PromiseStore srcStore)
+        {
+            final FR1<Object, R> onFulfilled = new FR1<Object, R>() { @Override public R call(final Object value) {
+                return fulfilledResolution((Integer) value + 1);
+            }};
+
+            P promise = promiseFactory().mutablePromise(srcStore);
+
+            for (int i = 0; i < 5; i++)
+                promise = doThen(promise, exec, onFulfilled, unusedOnRejected);
+
+            return promise;
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testInlineExecutor() throws Exception
+        {
+            final QueuedInlineExecutor inlineExec = new QueuedInlineExecutor(true, 2);
+            final PromiseStore inlineSrcStore = new PromiseStore();
+            final P inlinePromise = inlineExecutorChain(inlineExec, inlineSrcStore);
+
+            inlineSrcStore.setFulfilled(0);
+
+            assertThat(inlinePromise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+            assertEquals(1, inlineExec.runQueued());
+            assertEquals(5, await(inlinePromise));
+
+            final QueuedInlineExecutor foreignExec = new QueuedInlineExecutor(false, 2);
+            final PromiseStore foreignSrcStore = new PromiseStore();
+            final P foreignPromise = inlineExecutorChain(foreignExec, foreignSrcStore);
+
+            foreignSrcStore.setFulfilled(0);
+
+            assertEquals(5, foreignExec.runQueued());
+            assertEquals(5, await(foreignPromise));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testBatchExecutor() throws Exception
+        {
+            final QueuedBatchExecutor exec = new QueuedBatchExecutor(2);
+            final PromiseStore srcStore = new PromiseStore();
+            final P srcPromise = promiseFactory().mutablePromise(srcStore);
+            final P[] promises = ImplUtil.cast(new Object[5]);
+
+            for (int i = 0; i < promises.length; i++) {
+                final int offset = i;
+
+                promises[i] = doThen(
+                    srcPromise, exec,
+                    new FR1<Object, R>() { @Override public R call(final Object value) {
+                        return fulfilledResolution((Integer) value + offset);
+                    }},
+                    unusedOnRejected
+                );
+            }
+
+            final P promise = doThen(srcPromise, null, null, null);
+
+            srcStore.setFulfilled(100);
+
+            assertEquals(100, await(promise));
+            assertEquals(3, exec.runQueued());
+
+            for (int i = 0; i < promises.length; i++)
+                assertEquals(100 + i, await(promises[i]));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testAdoptableResolution() throws Exception
+        {
+            final P promise = doThen(
+                promiseFactory().originPromise(),
+                null,
+                new FR1<Object, R>() { @Override public R call(final Object value) {
+                    return ImplUtil.cast(new AdoptableResolution() {
+                        @Override public void subscribe(final Adopter adopter) {
+                            callbackMock.onFulfilled("subscribe", Thread.currentThread(), null);
+                            adopter.setFulfilled("v.adopted");
+                        }
+                    });
+                }},
+                unusedOnRejected
+            );
+
+            assertEquals("v.adopted", await(promise, 1, TimeUnit.SECONDS));
+
+            new FullVerificationsInOrder() {{
+                callbackMock.onFulfilled("subscribe", any, null);
+            }};
+        }
         //-------------------------------------------------------------------------------------------------------------
         @Test
         public final void testPromiseChain() throws Exception
@@ -2315,5 +2707,813 @@ public abstract class BasePromiseTest<R, P extends R, T extends R>
         //-------------------------------------------------------------------------------------------------------------
     }
     //-----------------------------------------------------------------------------------------------------------------
+    public class BaseCombinatorMethods extends Params
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testAllResolved() throws Exception
+        {
+            final P promise = promiseFactory().all(new Object[] {
+                promiseFactory().fulfilledPromise(1), promiseFactory().fulfilledPromise("a"), 3
+            });
+
+            final List<Object> values = Arrays.<Object>asList(1, "a", 3);
+
+            assertThat(promise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, values, null, null));
+            assertEquals(Collections.emptyList(), await(promiseFactory().all(new Object[0])));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testAllPending() throws Exception
+        {
+            final PromiseStore store1 = new PromiseStore();
+            final PromiseStore store2 = new PromiseStore();
+
+            final P promise = promiseFactory().all(Arrays.asList(
+                promiseFactory().mutablePromise(store1), promiseFactory().fulfilledPromise(2),
+                promiseFactory().mutablePromise(store2)
+            ));
+
+            store2.setFulfilled(3);
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            store1.setFulfilled(1);
+            assertEquals(Arrays.asList(1, 2, 3), await(promise, 1, TimeUnit.SECONDS));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testAllRejectedFast() throws Exception
+        {
+            final PromiseStore store1 = new PromiseStore();
+            final PromiseStore store2 = new PromiseStore();
+
+            final P promise = promiseFactory().all(new Object[] {
+                promiseFactory().mutablePromise(store1), promiseFactory().mutablePromise(store2)
+            });
+
+            final Matcher<P> rejectedMatcher =
+                promiseMatcher("MUTABLE", PromiseState.REJECTED, null, null, IllegalStateException.class);
+
+            store2.setRejected(null, new IllegalStateException());
+            assertThat(promise, rejectedMatcher);
+
+            store1.setFulfilled(1);
+            assertThat(promise, rejectedMatcher);
+
+            final P rejectedPromise = promiseFactory().all(new Object[] {
+                promiseFactory().rejectedPromise(null, new Exception()), promiseFactory().mutablePromise(store2)
+            });
+
+            assertThat(rejectedPromise, promiseMatcher("REJECTED", PromiseState.REJECTED, null, null, Exception.class));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testAllSettled() throws Exception
+        {
+            final PromiseStore pendingStore = new PromiseStore();
+            final PromiseStore resolvedStore = new PromiseStore();
+            final Exception exception1 = new Exception();
+            final IllegalStateException exception2 = new IllegalStateException();
+
+            resolvedStore.setFulfilled("b");
+
+            final P promise = promiseFactory().allSettled(Arrays.asList(
+                promiseFactory().fulfilledPromise(1), promiseFactory().rejectedPromise(null, exception1),
+                promiseFactory().mutablePromise(pendingStore), promiseFactory().mutablePromise(resolvedStore), "c"
+            ));
+
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            pendingStore.setRejected(null, exception2);
+
+            final Settlements<?, ?> settlements = (Settlements<?, ?>) await(promise, 1, TimeUnit.SECONDS);
+
+            assertEquals(5, settlements.size());
+            assertEquals(
+                Arrays.asList(
+                    PromiseState.FULFILLED, PromiseState.REJECTED, PromiseState.REJECTED, PromiseState.FULFILLED,
+                    PromiseState.FULFILLED
+                ),
+                Arrays.asList(
+                    settlements.state(0), settlements.state(1), settlements.state(2), settlements.state(3),
+                    settlements.state(4)
+                )
+            );
+            assertEquals(
+                Arrays.<Object>asList(1, null, null, "b", "c"),
+                Arrays.<Object>asList(
+                    settlements.value(0), settlements.value(1), settlements.value(2), settlements.value(3),
+                    settlements.value(4)
+                )
+            );
+            assertSame(exception1, settlements.exception(1));
+            assertSame(exception2, settlements.exception(2));
+            assertSame(null, settlements.exception(3));
+
+            final P emptyPromise = promiseFactory().allSettled(new Object[0]);
+            assertEquals(0, ((Settlements<?, ?>) await(emptyPromise)).size());
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testMapAsync() throws Exception
+        {
+            final List<PromiseStore> stores = new ArrayList<PromiseStore>();
+            final List<Integer> inputs = Arrays.asList(0, 1, 2, 3);
+
+            final P promise = promiseFactory().mapAsync(inputs, 2, null, new FR1<Integer, P>() {
+                @Override public P call(final Integer input) {
+                    final PromiseStore store = new PromiseStore();
+                    stores.add(store);
+                    return promiseFactory().mutablePromise(store);
+                }
+            });
+
+            assertEquals(2, stores.size());
+
+            stores.get(1).setFulfilled("b");
+            assertEquals(3, stores.size());
+
+            stores.get(2).setFulfilled("c");
+            stores.get(0).setFulfilled("a");
+            assertEquals(4, stores.size());
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            stores.get(3).setFulfilled("d");
+            assertEquals(Arrays.asList("a", "b", "c", "d"), await(promise, 1, TimeUnit.SECONDS));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testMapAsyncResolvedInline() throws Exception
+        {
+            final List<Integer> inputs = new ArrayList<Integer>();
+
+            for (int i = 0; i < 100000; i++)
+                inputs.add(i);
+
+            final P promise = promiseFactory().mapAsync(inputs, 3, null, new FR1<Integer, P>() {
+                @Override public P call(final Integer input) { return promiseFactory().fulfilledPromise(input + 1); }
+            });
+
+            final List<?> values = (List<?>) await(promise, 1, TimeUnit.SECONDS);
+
+            assertEquals(100000, values.size());
+            assertEquals(1, values.get(0));
+            assertEquals(100000, values.get(99999));
+
+            final P emptyPromise = promiseFactory().mapAsync(Collections.emptyList(), 3, null, null);
+            assertEquals(Collections.emptyList(), await(emptyPromise));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testMapAsyncRejected() throws Exception
+        {
+            final List<PromiseStore> stores = new ArrayList<PromiseStore>();
+
+            final List<Integer> inputs = Arrays.asList(0, 1, 2);
+
+            final P promise = promiseFactory().mapAsync(inputs, 1, null, new FR1<Integer, P>() {
+                @Override public P call(final Integer input) {
+                    final PromiseStore store = new PromiseStore();
+                    stores.add(store);
+                    return promiseFactory().mutablePromise(store);
+                }
+            });
+
+            stores.get(0).setRejected(null, new IllegalStateException());
+
+            assertEquals(1, stores.size());
+            assertThat(
+                promise, promiseMatcher("MUTABLE", PromiseState.REJECTED, null, null, IllegalStateException.class)
+            );
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testRaceFirstSettled() throws Exception
+        {
+            final PromiseStore store1 = new PromiseStore();
+            final PromiseStore store2 = new PromiseStore();
+
+            final P promise = promiseFactory().race(Arrays.asList(
+                promiseFactory().mutablePromise(store1), promiseFactory().alwaysPendingPromise(),
+                promiseFactory().mutablePromise(store2)
+            ));
+
+            final Matcher<P> rejectedMatcher =
+                promiseMatcher("MUTABLE", PromiseState.REJECTED, null, null, IllegalStateException.class);
+
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            store2.setRejected(null, new IllegalStateException());
+            assertThat(promise, rejectedMatcher);
+
+            store1.setFulfilled(1);
+            assertThat(promise, rejectedMatcher);
+
+            final P fulfilledPromise = promiseFactory().race(new Object[] {
+                promiseFactory().mutablePromise(store1), promiseFactory().mutablePromise(new PromiseStore())
+            });
+
+            assertThat(fulfilledPromise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, 1, null, null));
+            assertThat(
+                promiseFactory().race(new Object[0]),
+                promiseMatcher("ALWAYS-PENDING", PromiseState.PENDING, null, null, null)
+            );
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testAnyFirstFulfilled() throws Exception
+        {
+            final PromiseStore store1 = new PromiseStore();
+            final PromiseStore store2 = new PromiseStore();
+
+            final P promise = promiseFactory().any(new Object[] {
+                promiseFactory().mutablePromise(store1), promiseFactory().rejectedPromise(null, new Exception()),
+                promiseFactory().mutablePromise(store2)
+            });
+
+            store2.setRejected(null, new IllegalStateException());
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            store1.setFulfilled(1);
+            assertEquals(1, await(promise, 1, TimeUnit.SECONDS));
+
+            final IllegalStateException exception = new IllegalStateException();
+            final P rejectedPromise = promiseFactory().any(new Object[] {
+                promiseFactory().rejectedPromise(null, exception), promiseFactory().mutablePromise(store2)
+            });
+
+            final Object reasons = translateReason(Arrays.asList(null, null));
+
+            assertThat(
+                rejectedPromise,
+                promiseMatcher("REJECTED", PromiseState.REJECTED, null, reasons, AggregateException.class)
+            );
+            assertEquals(
+                Arrays.<Throwable>asList(exception, store2.exception),
+                ((AggregateException) toLightWeightPromise(rejectedPromise).exception()).exceptions()
+            );
+            assertThat(
+                promiseFactory().any(new Object[0]),
+                promiseMatcher("REJECTED", PromiseState.REJECTED, null, translateReason(Collections.emptyList()),
+                    AggregateException.class)
+            );
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testRaceDetachesLosers() throws Exception
+        {
+            final PromiseStore loser = new PromiseStore();
+
+            for (int i = 0; i < 100; i++) {
+                final PromiseStore winner = new PromiseStore();
+                promiseFactory().race(new Object[] {
+                    promiseFactory().mutablePromise(loser), promiseFactory().mutablePromise(winner)
+                });
+                winner.setFulfilled(i);
+            }
+
+            assertSame(null, Deencapsulation.getField(loser, "actions"));
+
+            loser.applyResolveAction(resolveActionMock);
+            loser.applyResolveAction(resolveActionMock);
+
+            for (int i = 0; i < 100; i++) {
+                final P promise = promiseFactory().any(new Object[] {
+                    promiseFactory().mutablePromise(loser), promiseFactory().fulfilledPromise(i)
+                });
+                assertEquals(i, await(promise));
+            }
+
+            final ActionChunk chunk = Deencapsulation.getField(loser, "actions");
+
+            assertSame(null, Deencapsulation.getField(chunk, "prev"));
+            assertEquals(4, chunk.size());
+
+            loser.setFulfilled(1);
+
+            new FullVerificationsInOrder() {{
+                resolveActionMock.setFulfilled(1); times = 2;
+            }};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public class BaseFlowControls extends Params
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        private final List<PromiseStore> stores = new ArrayList<PromiseStore>();
+        //-------------------------------------------------------------------------------------------------------------
+        private P pendingPromise()
+        {
+            final PromiseStore store = new PromiseStore();
+            stores.add(store);
+            return promiseFactory().mutablePromise(store);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testDelay() throws Exception
+        {
+            final long start = System.nanoTime();
+            final P promise = promiseFactory().delay(50, "a");
+            final P shorterPromise = promiseFactory().delay(0, null);
+
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+            assertSame(null, await(shorterPromise, 1, TimeUnit.SECONDS));
+            assertEquals("a", await(promise, 1, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testDelayCancelled() throws Exception
+        {
+            final HashedWheelTimer timer = HashedWheelTimer.instance;
+            final HashedWheelTimer.Timeout cancelled =
+                new HashedWheelTimer.Timeout(timer.deadlineAfter(10, TimeUnit.MILLISECONDS), "a");
+
+            timer.schedule(cancelled);
+            assertTrue(cancelled.cancel());
+            assertEquals("b", await(promiseFactory().delay(30, "b"), 1, TimeUnit.SECONDS));
+
+            final P promise = cancelled.createPromise(promiseFactory());
+
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+            assertTrue(!cancelled.cancel());
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testWithTimeoutExpired() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final P promise = promiseFactory().withTimeout(promiseFactory().mutablePromise(source), 20);
+
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+            final Throwable exception = awaitRejected(promise).exception();
+            assertTrue(exception instanceof PromiseTimeoutException);
+            assertEquals(0, exception.getStackTrace().length);
+            assertSame(null, Deencapsulation.getField(source, "actions"));
+
+            source.setFulfilled(1);
+            assertSame(exception, toLightWeightPromise(promise).exception());
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testWithTimeoutResolved() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final P promise = promiseFactory().withTimeout(promiseFactory().mutablePromise(source), 20);
+            final P resolvedPromise =
+                promiseFactory().withTimeout(promiseFactory().fulfilledPromise(2), 0);
+
+            source.setFulfilled(1);
+
+            assertEquals(1, await(promise, 1, TimeUnit.SECONDS));
+            assertThat(resolvedPromise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, 2, null, null));
+
+            Thread.sleep(40);
+            assertEquals(1, await(promise));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testWithTimeoutReleasesCancelled() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final P promise = promiseFactory().withTimeout(promiseFactory().mutablePromise(source), 1000);
+
+            source.setFulfilled(1);
+            assertEquals(1, await(promise, 1, TimeUnit.SECONDS));
+            Thread.sleep(20);
+
+            for (int i = 0; i < 1000; i++)
+                promiseFactory().withTimeout(promiseFactory().fulfilledPromise(i), 1000);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+            while (Deencapsulation.getField(HashedWheelTimer.instance, "cancelled") != null
+                && System.nanoTime() - deadline < 0)
+                Thread.sleep(1);
+
+            assertSame(null, Deencapsulation.getField(HashedWheelTimer.instance, "cancelled"));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testUnboundedDelays() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final P delayedPromise = promiseFactory().delay(Long.MAX_VALUE, "a");
+            final P promise =
+                promiseFactory().withTimeout(promiseFactory().mutablePromise(source), Long.MAX_VALUE);
+
+            Thread.sleep(150);
+
+            assertThat(delayedPromise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            source.setFulfilled(1);
+            assertEquals(1, await(promise, 1, TimeUnit.SECONDS));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        private FR1<Object, R> recordingOnFulfilled(final List<Object> calls)
+        {
+            return new FR1<Object, R>() { @Override public R call(final Object value) {
+                calls.add(value);
+                return fulfilledResolution(value);
+            }};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelPropagatesUpstream() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final List<Object> calls = new ArrayList<Object>();
+            final P promise = doThen(promiseFactory().mutablePromise(source), null, recordingOnFulfilled(calls), null);
+
+            assertTrue(promiseFactory().cancel(promise));
+
+            final Throwable exception = toLightWeightPromise(promise).exception();
+            assertTrue(exception instanceof PromiseCancelledException);
+            assertEquals(0, exception.getStackTrace().length);
+            assertTrue(source.isCancelled());
+            assertEquals(false, promiseFactory().cancel(promise));
+
+            source.setFulfilled(1);
+
+            assertEquals(Collections.emptyList(), calls);
+            assertSame(exception, toLightWeightPromise(promise).exception());
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelPropagatesThroughLazyStages() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final List<Object> calls = new ArrayList<Object>();
+            final P promise1 = doThen(promiseFactory().mutablePromise(source), null, recordingOnFulfilled(calls), null);
+            final P promise2 = doThen(promise1, null, recordingOnFulfilled(calls), null);
+            final P promise3 = doThen(promise2, null, recordingOnFulfilled(calls), null);
+
+            assertTrue(promiseFactory().cancel(promise3));
+            assertTrue(toLightWeightPromise(promise1).exception() instanceof PromiseCancelledException);
+            assertTrue(toLightWeightPromise(promise2).exception() instanceof PromiseCancelledException);
+            assertTrue(source.isCancelled());
+
+            source.setFulfilled(1);
+
+            assertEquals(Collections.emptyList(), calls);
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelKeepsSharedUpstream() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final List<Object> calls = new ArrayList<Object>();
+            final P sourcePromise = promiseFactory().mutablePromise(source);
+            final P cancelled = doThen(sourcePromise, null, recordingOnFulfilled(calls), null);
+            final P kept = doThen(sourcePromise, null, recordingOnFulfilled(calls), null);
+
+            assertTrue(promiseFactory().cancel(cancelled));
+            assertThat(sourcePromise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            source.setFulfilled(1);
+
+            assertEquals(Collections.<Object>singletonList(1), calls);
+            assertEquals(1, await(kept));
+            assertTrue(toLightWeightPromise(cancelled).exception() instanceof PromiseCancelledException);
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testClaimDetachedSealsChunk() throws Exception
+        {
+            final PromiseStore first = new PromiseStore();
+            final PromiseStore second = new PromiseStore();
+            final PromiseStore late = new PromiseStore();
+            final ActionChunk liveChunk = new ActionChunk(first, second);
+
+            assertTrue(liveChunk.remove(first));
+            assertTrue(!liveChunk.tryClaimDetached());
+            assertEquals(0, liveChunk.tryReuse(late));
+
+            final ActionChunk detachedChunk = new ActionChunk(first, second);
+
+            assertTrue(detachedChunk.remove(first));
+            assertTrue(detachedChunk.remove(second));
+            assertTrue(detachedChunk.tryClaimDetached());
+            assertEquals(-1, detachedChunk.tryAdd(late));
+            assertEquals(-1, detachedChunk.tryReuse(late));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelRacesThen() throws Exception
+        {
+            final FR1<Object, R> onFulfilled = new FR1<Object, R>() {
+                @Override public R call(final Object value) { return fulfilledResolution(value); }
+            };
+
+            final AtomicReference<Object[]> races = new AtomicReference<Object[]>();
+            final AtomicReference<Boolean> results = new AtomicReference<Boolean>();
+
+            final Thread thread = new Thread() { @Override public void run() {
+                for (;;) {
+                    final Object[] race = races.getAndSet(null);
+
+                    if (race == null) {
+                        Thread.yield();
+                        continue;
+                    }
+
+                    if (race.length == 0)
+                        return;
+
+                    doThen(ImplUtil.<P>cast(race[0]), null, onFulfilled, null);
+                    results.set(Deencapsulation.<Integer>getField(race[1], "stateWord") == 0);
+                }
+            }};
+
+            thread.start();
+
+            for (int i = 0; i < 5000; i++) {
+                final PromiseStore source = new PromiseStore();
+                final P sourcePromise = promiseFactory().mutablePromise(source);
+                final P cancelled = doThen(sourcePromise, null, onFulfilled, null);
+
+                assertTrue(promiseFactory().cancel(doThen(sourcePromise, null, onFulfilled, null)));
+
+                races.set(new Object[] { sourcePromise, source });
+                promiseFactory().cancel(cancelled);
+
+                Boolean isAttachedWhilePending;
+
+                while ((isAttachedWhilePending = results.getAndSet(null)) == null)
+                    Thread.yield();
+
+                if (isAttachedWhilePending)
+                    assertTrue(!source.isCancelled());
+            }
+
+            races.set(new Object[0]);
+            thread.join();
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelBeforeUpstreamLinked() throws Exception
+        {
+            final PromiseStore source = new PromiseStore();
+            final PromiseStore consumer = new PromiseStore();
+
+            assertTrue(consumer.cancelChain());
+            source.applyResolveAction(consumer);
+
+            assertTrue(source.isCancelled());
+            assertSame(null, Deencapsulation.getField(consumer, "upstream"));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testCancelSkipsQueuedCallback() throws Exception
+        {
+            final ArrayDeque<Runnable> queue = new ArrayDeque<Runnable>();
+            final List<Object> calls = new ArrayList<Object>();
+
+            final Executor exec = new Executor() { @Override public void execute(final Runnable command) {
+                queue.add(command);
+            }};
+
+            final P promise = doThen(promiseFactory().fulfilledPromise(1), exec, recordingOnFulfilled(calls), null);
+
+            assertEquals(1, queue.size());
+            assertTrue(promiseFactory().cancel(promise));
+
+            queue.poll().run();
+
+            assertEquals(Collections.emptyList(), calls);
+            assertTrue(toLightWeightPromise(promise).exception() instanceof PromiseCancelledException);
+            assertEquals(false, promiseFactory().cancel(promiseFactory().fulfilledPromise(1)));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        private PromiseRejectedException awaitRejected(final P promise) throws Exception
+        {
+            try {
+                await(promise, 1, TimeUnit.SECONDS);
+            } catch (final PromiseRejectedException e) {
+                return e;
+            }
+
+            throw new AssertionError("Promise is not rejected");
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testIfAsync() throws Exception
+        {
+            final PromiseStore predicateStore = new PromiseStore();
+            final List<String> built = new ArrayList<String>();
+
+            final P predicate = promiseFactory().mutablePromise(predicateStore);
+
+            final P promise = promiseFactory().ifAsync(null, predicate,
+                new FR0<P>() { @Override public P call() { built.add("then"); return pendingPromise(); }},
+                new FR0<P>() { @Override public P call() { built.add("else"); return pendingPromise(); }}
+            );
+
+            assertEquals(Collections.emptyList(), built);
+
+            predicateStore.setFulfilled(false);
+            assertEquals(Collections.singletonList("else"), built);
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            stores.get(0).setFulfilled("b");
+            assertEquals("b", await(promise, 1, TimeUnit.SECONDS));
+
+            final P thenPromise = promiseFactory().ifAsync(null, promiseFactory().fulfilledPromise(true),
+                new FR0<P>() { @Override public P call() { return promiseFactory().fulfilledPromise("a"); }},
+                null
+            );
+
+            final P elsePromise = promiseFactory().ifAsync(null, promiseFactory().fulfilledPromise(false),
+                new FR0<P>() { @Override public P call() { return promiseFactory().fulfilledPromise("a"); }},
+                null
+            );
+
+            assertThat(thenPromise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, "a", null, null));
+            assertThat(elsePromise, promiseMatcher("FULFILLED", PromiseState.FULFILLED, null, null, null));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testSwitchAsync() throws Exception
+        {
+            final Map<String, FR0<P>> cases = new HashMap<String, FR0<P>>();
+
+            cases.put("a", new FR0<P>() { @Override public P call() { return promiseFactory().fulfilledPromise(1); }});
+            cases.put("b", new FR0<P>() { @Override public P call() { throw new IllegalStateException(); }});
+
+            final FR0<P> defaultBranch = new FR0<P>() {
+                @Override public P call() { return promiseFactory().rejectedPromise(null, new Exception()); }
+            };
+
+            final Matcher<P> defaultMatcher =
+                promiseMatcher("REJECTED", PromiseState.REJECTED, null, null, Exception.class);
+            final Matcher<P> throwMatcher =
+                promiseMatcher("REJECTED", PromiseState.REJECTED, null, null, IllegalStateException.class);
+
+            assertThat(switchAsync("a", cases, defaultBranch),
+                promiseMatcher("FULFILLED", PromiseState.FULFILLED, 1, null, null));
+            assertThat(switchAsync("b", cases, defaultBranch), throwMatcher);
+            assertThat(switchAsync("c", cases, defaultBranch), defaultMatcher);
+
+            final P rejectedPromise = promiseFactory().switchAsync(null,
+                promiseFactory().rejectedPromise(null, new IllegalStateException()), cases, defaultBranch);
+
+            assertThat(rejectedPromise, throwMatcher);
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        private P switchAsync(final Object selector, final Map<String, FR0<P>> cases, final FR0<P> defaultBranch)
+        {
+            return promiseFactory().switchAsync(null, promiseFactory().fulfilledPromise(selector), cases, defaultBranch
+            );
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testLoopResolvedInline() throws Exception
+        {
+            final P promise = promiseFactory().loop(null, 0,
+                new FR1<Integer, Boolean>() { @Override public Boolean call(final Integer state) {
+                    return state < 1000000;
+                }},
+                new FR1<Integer, P>() { @Override public P call(final Integer state) {
+                    return promiseFactory().fulfilledPromise(state + 1);
+                }}
+            );
+
+            assertEquals(1000000, await(promise, 1, TimeUnit.SECONDS));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testWhileAsync() throws Exception
+        {
+            final P promise = promiseFactory().whileAsync(null,
+                new FR0<Boolean>() { @Override public Boolean call() { return stores.size() < 3; }},
+                new FR0<P>() { @Override public P call() { return pendingPromise(); }}
+            );
+
+            assertEquals(1, stores.size());
+
+            stores.get(0).setFulfilled(null);
+            stores.get(1).setFulfilled(null);
+            assertThat(promise, promiseMatcher("MUTABLE", PromiseState.PENDING, null, null, null));
+
+            stores.get(2).setFulfilled(null);
+            assertSame(null, await(promise, 1, TimeUnit.SECONDS));
+            assertEquals(3, stores.size());
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testDoWhileAsync() throws Exception
+        {
+            final P promise = promiseFactory().doWhileAsync(null,
+                new FR0<P>() { @Override public P call() { return pendingPromise(); }},
+                new FR0<Boolean>() { @Override public Boolean call() { return false; }}
+            );
+
+            assertEquals(1, stores.size());
+
+            stores.get(0).setFulfilled(null);
+            assertSame(null, await(promise, 1, TimeUnit.SECONDS));
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testForAsync() throws Exception
+        {
+            final List<Integer> indexes = new ArrayList<Integer>();
+
+            final P promise = promiseFactory().forAsync(null, 2, 5, new FR1<Integer, P>() {
+                @Override public P call(final Integer index) {
+                    indexes.add(index);
+                    return index == 3 ? pendingPromise() : promiseFactory().fulfilledPromise(null);
+                }
+            });
+
+            assertEquals(Arrays.asList(2, 3), indexes);
+
+            stores.get(0).setFulfilled(null);
+            assertSame(null, await(promise, 1, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(2, 3, 4), indexes);
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testForAsyncRejected() throws Exception
+        {
+            final List<Integer> indexes = new ArrayList<Integer>();
+
+            final P promise = promiseFactory().forAsync(null, 0, 10, new FR1<Integer, P>() {
+                @Override public P call(final Integer index) {
+                    indexes.add(index);
+                    return index == 1 ? pendingPromise() : promiseFactory().fulfilledPromise(null);
+                }
+            });
+
+            stores.get(0).setRejected(null, new IllegalStateException());
+
+            assertEquals(Arrays.asList(0, 1), indexes);
+            assertThat(
+                promise, promiseMatcher("MUTABLE", PromiseState.REJECTED, null, null, IllegalStateException.class)
+            );
+
+            new FullVerificationsInOrder() {};
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
 }
 //---------------------------------------------------------------------------------------------------------------------
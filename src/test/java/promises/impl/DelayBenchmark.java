@@ -0,0 +1,90 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Compares fulfilling promise stores after short delays (1 to 100 milliseconds) by the hashed-wheel timer behind
+ * {@code Promises.delay} with doing it by a {@link ScheduledThreadPoolExecutor}. Run by
+ * {@code java -cp ... promises.impl.DelayBenchmark [delays per round]}.
+ */
+public final class DelayBenchmark
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static ResolveAction countDown(final CountDownLatch latch)
+    {
+        return new ResolveAction() {
+            @Override public void setAlwaysPending() { }
+            @Override public void setFulfilled(final Object value) { latch.countDown(); }
+            @Override public void setRejected(final Object reason, final Throwable exception) { }
+        };
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long runWheel(final int count) throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(count);
+        final ResolveAction countDown = countDown(latch);
+        final HashedWheelTimer timer = HashedWheelTimer.instance;
+
+        for (int i = 0; i < count; i++) {
+            final long deadline = timer.deadlineAfter(1 + i % 100, TimeUnit.MILLISECONDS);
+            timer.schedule(new HashedWheelTimer.Timeout(deadline, i)).applyResolveAction(countDown);
+        }
+
+        latch.await();
+        return count;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long runScheduledPool(final ScheduledThreadPoolExecutor pool, final int count) throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(count);
+        final ResolveAction countDown = countDown(latch);
+
+        for (int i = 0; i < count; i++) {
+            final PromiseStore store = new PromiseStore();
+            final Integer value = i;
+
+            store.applyResolveAction(countDown);
+            pool.schedule(new Runnable() {
+                @Override public void run() { store.setFulfilled(value); }
+            }, 1 + i % 100, TimeUnit.MILLISECONDS);
+        }
+
+        latch.await();
+        return count;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static void main(final String[] args) throws Exception
+    {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1);
+        final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < 5; round++) {
+            for (int wheel = 0; wheel < 2; wheel++) {
+                final long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+                final long start = System.nanoTime();
+                final long sum = wheel == 0 ? runWheel(count) : runScheduledPool(pool, count);
+                final long elapsed = System.nanoTime() - start;
+                final long bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+                System.out.printf(
+                    "round %d, %-14s: %7.1f ms total, %7.1f caller bytes/delay (%d delays)%n",
+                    round, wheel == 0 ? "wheel" : "scheduled pool", elapsed / 1e6, (double) bytes / count, sum
+                );
+            }
+        }
+
+        pool.shutdown();
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,66 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.lw.OnFul;
+import promises.lw.P;
+import promises.lw.Promises;
+import promises.lw.RV;
+import java.lang.management.ManagementFactory;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Measures the time and the bytes allocated per light-weight then-chain appended to a pending promise and resolved
+ * afterwards, whose intermediate promises are never observed. Run by
+ * {@code java -cp ... promises.impl.LazyChainBenchmark [stages] [iterations]}.
+ */
+public final class LazyChainBenchmark
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final OnFul<Integer, Integer> increment = new OnFul<Integer, Integer>() {
+        @Override public RV<Integer> call(final Integer value) { return Promises.pf(value + 1); }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long run(final int stages, final int iterations)
+    {
+        long sum = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            final PromiseStore store = new PromiseStore();
+            P<Integer> promise = LightWeightPromiseImpl.<Integer>factory().mutablePromise(store);
+
+            for (int stage = 0; stage < stages; stage++)
+                promise = promise.then(increment);
+
+            store.setFulfilled(i & 63);
+            sum += promise.value();
+        }
+
+        return sum;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static void main(final String[] args)
+    {
+        final int stages = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < 5; round++) {
+            final long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+            final long start = System.nanoTime();
+            final long sum = run(stages, iterations);
+            final long elapsed = System.nanoTime() - start;
+            final long bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+            System.out.printf(
+                "round %d: %8.1f ns/chain, %8.1f bytes/chain (sum %d)%n",
+                round, (double) elapsed / iterations, (double) bytes / iterations, sum
+            );
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
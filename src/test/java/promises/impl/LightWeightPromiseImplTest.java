@@ -16,11 +16,15 @@ import org.junit.runner.RunWith;
 import promises.F2;
 import promises.FR1;
 import promises.FR2;
+import promises.FR3;
+import promises.M2;
+import promises.M3;
 import promises.PromiseRejectedException;
 import promises.PromiseState;
 import promises.TestStep;
 import promises.TestUtil;
 import promises.lw.P;
+import promises.lw.Promises;
 import promises.lw.RV;
 import promises.lw.RejP;
 import promises.lw.ResP;
@@ -28,6 +32,8 @@ import promises.lw.Thenable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 //---------------------------------------------------------------------------------------------------------------------
 public final class LightWeightPromiseImplTest extends BasePromiseTest<RV<?>, LightWeightPromiseImpl<?>, Thenable<?>>
 {
@@ -332,6 +338,90 @@ public final class LightWeightPromiseImplTest extends BasePromiseTest<RV<?>, Lig
     }
     //-----------------------------------------------------------------------------------------------------------------
     @RunWith(JUnitParamsRunner.class)
+    public static final class CombinatorMethods extends BaseCombinatorMethods
+    {
+        public CombinatorMethods()
+        {
+            test.super();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class FlowControls extends BaseFlowControls
+    {
+        public FlowControls()
+        {
+            test.super();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class MultiValues
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        private static final FR2<Integer, String, RV<M3<Integer, String, Boolean>>>
+        onFulfilled2 = new FR2<Integer, String, RV<M3<Integer, String, Boolean>>>() {
+            @Override public RV<M3<Integer, String, Boolean>> call(final Integer v1, final String v2) {
+                return Promises.v(v1 + 1, v2 + "b", true);
+            }
+        };
+        //-------------------------------------------------------------------------------------------------------------
+        private static final FR3<Integer, String, Boolean, RV<String>>
+        onFulfilled3 = new FR3<Integer, String, Boolean, RV<String>>() {
+            @Override public RV<String> call(final Integer v1, final String v2, final Boolean v3) {
+                return Promises.v(v1 + v2 + v3);
+            }
+        };
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testResolvedMultiValueChain() throws Exception
+        {
+            final P<M2<Integer, String>> srcPromise = Promises.pf(1, "a");
+            final P<M3<Integer, String, Boolean>> midPromise = srcPromise.then(Promises.wf(onFulfilled2));
+
+            final M2<Integer, String> srcValue = srcPromise.value();
+            assertSame(srcValue, srcPromise.value());
+            assertEquals(Integer.valueOf(1), srcValue.v1);
+            assertEquals("a", srcValue.v2);
+
+            assertEquals("2abtrue", midPromise.then(Promises.wf(onFulfilled3)).value());
+            assertEquals("(2,ab,true)", midPromise.await().toString());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testPendingMultiValueChain() throws Exception
+        {
+            final PromiseStore store = new PromiseStore();
+            final P<M2<Integer, String>> srcPromise = LightWeightPromiseImpl.<M2<Integer, String>>factory()
+                .mutablePromise(store);
+
+            final P<String> dstPromise = srcPromise
+                .then(Promises.wf(onFulfilled2))
+                .then(Promises.wf(onFulfilled3));
+
+            store.setFulfilled(M2.of(3, "c"));
+
+            assertEquals("4cbtrue", dstPromise.await(1, TimeUnit.SECONDS));
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testMaterializedForPlainCallbacks() throws Exception
+        {
+            final P<M2<Integer, String>> dstPromise = Promises.pf(5, "e")
+                .then(new FR1<M2<Integer, String>, RV<M2<Integer, String>>>() {
+                    @Override public RV<M2<Integer, String>> call(final M2<Integer, String> v) {
+                        return Promises.v(v.v1 * 2, v.v2 + v.v2);
+                    }
+                });
+
+            assertEquals("(10,ee)", dstPromise.await().toString());
+            assertEquals("(10,ee)", dstPromise.toTypedPromise().value().toString());
+            assertEquals("(10,ee)", dstPromise.toUntypedPromise().value().toString());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
     public static final class ThenMethods
     {
         //-------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,283 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import junitparams.JUnitParamsRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import promises.PromiseRejectedException;
+import promises.PromiseState;
+import promises.TestThread;
+import promises.TypeErrorException;
+import promises.lw.DoubleFR1;
+import promises.lw.DoubleOnRej;
+import promises.lw.DoubleP;
+import promises.lw.IntFR1;
+import promises.lw.IntOnRej;
+import promises.lw.IntP;
+import promises.lw.LongFR1;
+import promises.lw.LongOnRej;
+import promises.lw.LongP;
+import promises.lw.P;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static promises.lw.Promises.pfDouble;
+import static promises.lw.Promises.pfInt;
+import static promises.lw.Promises.pfLong;
+import static promises.lw.Promises.pf;
+import static promises.lw.Promises.pr;
+import static promises.lw.Promises.unboxDouble;
+import static promises.lw.Promises.unboxInt;
+import static promises.lw.Promises.unboxLong;
+//---------------------------------------------------------------------------------------------------------------------
+public final class PrimitivePromiseImplTest
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final IntFR1 incrementInt = new IntFR1() {
+        @Override public int call(final int a1) { return a1 + 1; }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final LongFR1 doubleLong = new LongFR1() {
+        @Override public long call(final long a1) { return a1 * 2; }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final DoubleFR1 halveDouble = new DoubleFR1() {
+        @Override public double call(final double a1) { return a1 / 2; }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final IntFR1 throwingInt = new IntFR1() {
+        @Override public int call(final int a1) { throw new IllegalStateException("failed " + a1); }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final IntOnRej recoverInt = new IntOnRej() {
+        @Override public int call(final Throwable exception) { return -1; }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class Chains
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testResolvedChains() throws Exception
+        {
+            final IntP intPromise = pfInt(1).then(incrementInt).then(incrementInt);
+            assertEquals(PromiseState.FULFILLED, intPromise.state());
+            assertEquals(3, intPromise.value());
+            assertEquals(3, intPromise.await());
+
+            final LongP longPromise = pfLong(Integer.MAX_VALUE).then(doubleLong);
+            assertEquals(Integer.MAX_VALUE * 2L, longPromise.await());
+
+            final DoubleP doublePromise = pfDouble(3.0).then(halveDouble).then(halveDouble);
+            assertEquals(0.75, doublePromise.await(1, TimeUnit.SECONDS), 0.0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testPendingChain() throws Exception
+        {
+            final PromiseStore srcStore = new PromiseStore();
+            final P<Integer> srcPromise = LightWeightPromiseImpl.<Integer>factory().mutablePromise(srcStore);
+            final IntP promise = unboxInt(srcPromise).then(incrementInt).then(incrementInt);
+
+            assertEquals(PromiseState.PENDING, promise.state());
+
+            srcStore.setFulfilled(40);
+
+            assertEquals(42, promise.await());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testExecutorChain() throws Exception
+        {
+            final TestThread thread = new TestThread();
+            final PromiseStore srcStore = new PromiseStore();
+            final P<Long> srcPromise = LightWeightPromiseImpl.<Long>factory().mutablePromise(srcStore);
+
+            final LongP promise = unboxLong(srcPromise).then(thread.executor, new LongFR1() {
+                @Override public long call(final long a1) {
+                    assertSame(thread, Thread.currentThread());
+                    return a1 + 1;
+                }
+            }).then(doubleLong);
+
+            srcStore.setFulfilled(20L);
+
+            assertEquals(42L, promise.await(1, TimeUnit.SECONDS));
+            assertEquals(84L, pfLong(42L).then(thread.executor, doubleLong).await(1, TimeUnit.SECONDS));
+
+            thread.executor.shutdown();
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testRejectedChain() throws Exception
+        {
+            final IntP promise = pfInt(1).then(throwingInt).then(incrementInt);
+
+            assertEquals(PromiseState.REJECTED, promise.state());
+            assertEquals(IllegalStateException.class, promise.exception().getClass());
+
+            try {
+                promise.await();
+                fail();
+            } catch (final PromiseRejectedException e) {
+                assertEquals(IllegalStateException.class, e.exception().getClass());
+            }
+
+            final Exception exception = new Exception();
+            assertSame(exception, unboxDouble(pr(exception)).then(halveDouble).exception());
+            assertEquals(NullPointerException.class, unboxInt(pfNull()).exception().getClass());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        private static P<Integer> pfNull()
+        {
+            return LightWeightPromiseImpl.<Integer>factory().fulfilledPromise(null);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class BoxingBridge
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testResolvedBridge() throws Exception
+        {
+            assertEquals(Integer.valueOf(7), pfInt(6).then(incrementInt).toP().await());
+            assertEquals(Long.valueOf(8L), pfLong(4L).then(doubleLong).toP().await());
+            assertEquals(Double.valueOf(1.5), pfDouble(3.0).then(halveDouble).toP().await());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testPendingBridge() throws Exception
+        {
+            final PromiseStore srcStore = new PromiseStore();
+            final P<Double> srcPromise = LightWeightPromiseImpl.<Double>factory().mutablePromise(srcStore);
+            final P<Double> fulfilledPromise = unboxDouble(srcPromise).then(halveDouble).toP();
+
+            final PromiseStore rejectedSrcStore = new PromiseStore();
+            final P<Integer> rejectedSrcPromise =
+                LightWeightPromiseImpl.<Integer>factory().mutablePromise(rejectedSrcStore);
+            final P<Integer> rejectedPromise = unboxInt(rejectedSrcPromise).then(incrementInt).toP();
+
+            assertEquals(PromiseState.PENDING, fulfilledPromise.state());
+            assertEquals(PromiseState.PENDING, rejectedPromise.state());
+
+            final Exception exception = new Exception();
+            srcStore.setFulfilled(5.0);
+            rejectedSrcStore.setRejected(null, exception);
+
+            assertEquals(Double.valueOf(2.5), fulfilledPromise.await());
+            assertEquals(PromiseState.REJECTED, rejectedPromise.state());
+            assertSame(exception, rejectedPromise.exception());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class Recoveries
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testResolvedRecovery() throws Exception
+        {
+            assertEquals(PromiseState.REJECTED, pfInt(1).then(throwingInt, recoverInt).state());
+            assertEquals(0, pfInt(1).then(throwingInt).then(incrementInt, recoverInt).then(incrementInt).await());
+            assertEquals(2, pfInt(1).then(incrementInt, recoverInt).await());
+
+            final Exception exception = new Exception();
+
+            assertEquals(4L, unboxLong(pr(exception)).then(null, new LongOnRej() {
+                @Override public long call(final Throwable e) {
+                    assertSame(exception, e);
+                    return 2L;
+                }
+            }).then(doubleLong).await());
+
+            assertEquals(0.5, unboxDouble(pr(exception)).then(halveDouble, new DoubleOnRej() {
+                @Override public double call(final Throwable e) { return 1.0; }
+            }).then(halveDouble).await(), 0.0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testPendingRecovery() throws Exception
+        {
+            final TestThread thread = new TestThread();
+            final PromiseStore srcStore = new PromiseStore();
+            final P<Integer> srcPromise = LightWeightPromiseImpl.<Integer>factory().mutablePromise(srcStore);
+
+            final IntP promise = unboxInt(srcPromise).then(incrementInt).then(thread.executor, null, new IntOnRej() {
+                @Override public int call(final Throwable exception) {
+                    assertSame(thread, Thread.currentThread());
+                    return 41;
+                }
+            }).then(incrementInt);
+
+            assertEquals(PromiseState.PENDING, promise.state());
+
+            srcStore.setRejected(null, new Exception());
+
+            assertEquals(42, promise.await(1, TimeUnit.SECONDS));
+
+            thread.executor.shutdown();
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testPassThrough() throws Exception
+        {
+            final IntP fulfilledPromise = pfInt(7);
+            final IntP passedPromise = fulfilledPromise.then(null, recoverInt);
+
+            assertSame(((PrimitivePromiseImpl) fulfilledPromise).store, ((PrimitivePromiseImpl) passedPromise).store);
+            assertEquals(7, passedPromise.value());
+
+            final Exception exception = new Exception();
+            final IntP rejectedPromise = unboxInt(pr(exception)).then(incrementInt, null).then(null, (IntOnRej) null);
+
+            assertSame(exception, rejectedPromise.exception());
+            assertEquals(0, rejectedPromise.value());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testThrowingRecovery() throws Exception
+        {
+            final IntP promise = pfInt(1).then(throwingInt).then(null, new IntOnRej() {
+                @Override public int call(final Throwable exception) { throw new UnsupportedOperationException(); }
+            });
+
+            assertEquals(PromiseState.REJECTED, promise.state());
+            assertEquals(UnsupportedOperationException.class, promise.exception().getClass());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class StrictUnboxing
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testLosslessUnboxing() throws Exception
+        {
+            assertEquals(7, unboxInt(pf((short) 7)).await());
+            assertEquals(7L, unboxLong(pf(7)).await());
+            assertEquals(1.5, unboxDouble(pf(1.5f)).await(), 0.0);
+            assertEquals(7.0, unboxDouble(pf((byte) 7)).await(), 0.0);
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testLossyUnboxing() throws Exception
+        {
+            assertEquals(TypeErrorException.class, unboxInt(pf(Long.MAX_VALUE)).exception().getClass());
+            assertEquals(TypeErrorException.class, unboxLong(pf(1.5)).exception().getClass());
+            assertEquals(TypeErrorException.class, unboxDouble(pf(Long.MAX_VALUE)).exception().getClass());
+            assertEquals(TypeErrorException.class, unboxInt(pf(BigInteger.ONE)).exception().getClass());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,69 @@
+//---------------------------------------------------------------------------------------------------------------------
+// Copyright (C) 2015-2020, Joseph M. G. Tsai
+// under the terms of the Apache License, Version 2.0 (ALv2),
+// found at http://www.apache.org/licenses/LICENSE-2.0
+//---------------------------------------------------------------------------------------------------------------------
+package promises.impl;
+import promises.PromiseState;
+import promises.lw.OnFul;
+import promises.lw.P;
+import promises.lw.Promises;
+import promises.lw.RV;
+//---------------------------------------------------------------------------------------------------------------------
+/**
+ * Measures a short light-weight then-chain whose call sites see fulfilled, mutable and rejected promises in turn. Run
+ * with {@code -XX:+UnlockDiagnosticVMOptions -XX:+PrintInlining} to inspect the inlining of {@code then},
+ * {@code state} and {@code value} call sites. Run by
+ * {@code java -cp ... promises.impl.ThenChainBenchmark [iterations]}.
+ */
+public final class ThenChainBenchmark
+{
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final Exception exception = new Exception();
+    //-----------------------------------------------------------------------------------------------------------------
+    private static final OnFul<Integer, Integer> increment = new OnFul<Integer, Integer>() {
+        @Override public RV<Integer> call(final Integer value) { return Promises.pf(value + 1); }
+    };
+    //-----------------------------------------------------------------------------------------------------------------
+    private static P<Integer> source(final int i)
+    {
+        if (i % 3 == 0)
+            return Promises.pf(i & 63);
+
+        if (i % 3 == 2)
+            return Promises.pr(exception);
+
+        final PromiseStore store = new PromiseStore();
+        store.setFulfilled(i & 63);
+        return LightWeightPromiseImpl.<Integer>factory().mutablePromise(store);
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    private static long run(final int iterations)
+    {
+        long sum = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            final P<Integer> promise = source(i).then(increment).then(increment).then(increment);
+
+            if (promise.state() == PromiseState.FULFILLED)
+                sum += promise.value();
+        }
+
+        return sum;
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    public static void main(final String[] args)
+    {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+
+        for (int round = 0; round < 5; round++) {
+            final long start = System.nanoTime();
+            final long sum = run(iterations);
+            final long elapsed = System.nanoTime() - start;
+
+            System.out.printf("round %d: %6.1f ns/chain (sum %d)%n", round, (double) elapsed / iterations, sum);
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+}
+//---------------------------------------------------------------------------------------------------------------------
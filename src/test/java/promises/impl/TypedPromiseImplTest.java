@@ -16,12 +16,17 @@ import org.junit.runner.RunWith;
 import promises.F2;
 import promises.FR1;
 import promises.FR2;
+import promises.M2;
+import promises.M3;
+import promises.M4;
+import promises.M5;
 import promises.PromiseRejectedException;
 import promises.PromiseState;
 import promises.TestStep;
 import promises.TestUtil;
 import promises.lw.P;
 import promises.typed.Promise;
+import promises.typed.Promises;
 import promises.typed.RejectPromise;
 import promises.typed.Resolution;
 import promises.typed.ResolvePromise;
@@ -29,6 +34,8 @@ import promises.typed.Thenable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 //---------------------------------------------------------------------------------------------------------------------
 public final class TypedPromiseImplTest
     extends BasePromiseTest<Resolution<?, ?>, TypedPromiseImpl<?, ?>, Thenable<?, ?>>
@@ -348,6 +355,69 @@ public final class TypedPromiseImplTest
     }
     //-----------------------------------------------------------------------------------------------------------------
     @RunWith(JUnitParamsRunner.class)
+    public static final class CombinatorMethods extends BaseCombinatorMethods
+    {
+        public CombinatorMethods()
+        {
+            test.super();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class FlowControls extends BaseFlowControls
+    {
+        public FlowControls()
+        {
+            test.super();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class MultiValues
+    {
+        //-------------------------------------------------------------------------------------------------------------
+        private static final FR2<Integer, String, Resolution<M3<Integer, String, Boolean>, Object>>
+        onFulfilled2 = new FR2<Integer, String, Resolution<M3<Integer, String, Boolean>, Object>>() {
+            @Override public Resolution<M3<Integer, String, Boolean>, Object> call(final Integer v1, final String v2) {
+                return Promises.v(v1 + 1, v2 + "b", true);
+            }
+        };
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testFulfilledMultiValues() throws Exception
+        {
+            final Promise<M2<Integer, String>, Object> promise2 = Promises.pf(1, "a");
+            final Promise<M3<Integer, String, Boolean>, Object> promise3 = Promises.pf(1, "a", true);
+            final Promise<M4<Integer, String, Boolean, Long>, Object> promise4 = Promises.pf(1, "a", true, 2L);
+            final Promise<M5<Integer, String, Boolean, Long, Character>, Object> promise5 =
+                Promises.pf(1, "a", true, 2L, 'c');
+
+            final M2<Integer, String> value2 = promise2.value();
+            assertSame(value2, promise2.value());
+            assertEquals(Integer.valueOf(1), value2.v1);
+            assertEquals("a", value2.v2);
+
+            assertEquals("(1,a,true)", promise3.await().toString());
+            assertEquals(Long.valueOf(2), promise4.value().v4);
+            assertEquals("(1,a,true,2,c)", promise5.value().toString());
+            assertEquals("(1,a,true,2,c)", promise5.toLightWeightPromise().value().toString());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+        @Test
+        public final void testResolvedMultiValueChain() throws Exception
+        {
+            final Promise<M3<Integer, String, Boolean>, Object> dstPromise = Promises
+                .<Integer, String, Object>pf(1, "a")
+                .then(Promises.wf(onFulfilled2));
+
+            assertEquals(Boolean.TRUE, dstPromise.value().v3);
+            assertEquals("(2,ab,true)", dstPromise.await().toString());
+            assertEquals("(2,ab,true)", dstPromise.toUntypedPromise().value().toString());
+        }
+        //-------------------------------------------------------------------------------------------------------------
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
     public static final class ThenMethods
     {
         //-------------------------------------------------------------------------------------------------------------
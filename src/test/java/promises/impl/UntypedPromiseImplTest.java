@@ -305,6 +305,24 @@ public final class UntypedPromiseImplTest extends BasePromiseTest<Object, Untype
     }
     //-----------------------------------------------------------------------------------------------------------------
     @RunWith(JUnitParamsRunner.class)
+    public static final class CombinatorMethods extends BaseCombinatorMethods
+    {
+        public CombinatorMethods()
+        {
+            test.super();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
+    public static final class FlowControls extends BaseFlowControls
+    {
+        public FlowControls()
+        {
+            test.super();
+        }
+    }
+    //-----------------------------------------------------------------------------------------------------------------
+    @RunWith(JUnitParamsRunner.class)
     public static final class ThenMethods
     {
         //-------------------------------------------------------------------------------------------------------------